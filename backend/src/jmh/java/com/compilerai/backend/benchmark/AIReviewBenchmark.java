@@ -0,0 +1,76 @@
+package com.compilerai.backend.benchmark;
+
+import com.compilerai.backend.dto.AIReviewRequest;
+import com.compilerai.backend.dto.AIReviewResponse;
+import com.compilerai.backend.service.AIReviewCache;
+import com.compilerai.backend.service.AIReviewServiceAccess;
+import com.compilerai.backend.service.GeminiClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPU work around a Gemini call, for submissions of growing size: building
+ * the prompt, the review cache key (code normalization plus SHA-256), reading
+ * the text out of Gemini's JSON answer, and splitting it into review and hints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIReviewBenchmark {
+
+    @Param({"50", "500", "5000"})
+    public int codeLines;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private AIReviewRequest request;
+    private String geminiJson;
+    private String responseText;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder code = new StringBuilder("#include <bits/stdc++.h>\nusing namespace std;\n");
+        for (int i = 0; i < codeLines; i++) {
+            code.append("    long v").append(i).append(" = a * ").append(i)
+                    .append(" + b; // step ").append(i).append('\n');
+        }
+        String description = "Given two integers a and b, print their sum. ".repeat(20);
+        request = new AIReviewRequest(code.toString(), "p-1", "Sum of Two Numbers", description);
+
+        StringBuilder text = new StringBuilder("Review: The solution reads the input correctly. ")
+                .append("It recomputes values that could be hoisted out of the loop.\nHints:\n");
+        for (int i = 0; i < 3; i++) {
+            text.append("- Hint ").append(i).append(": consider the constraints before choosing a type.\n");
+        }
+        responseText = text.toString();
+        geminiJson = objectMapper.writeValueAsString(Map.of("candidates", List.of(
+                Map.of("content", Map.of("role", "model", "parts", List.of(Map.of("text", responseText)))))));
+    }
+
+    @Benchmark
+    public String buildPrompt() {
+        return AIReviewServiceAccess.buildPrompt(request, false);
+    }
+
+    @Benchmark
+    public String cacheKey() {
+        return AIReviewCache.key("review", request.getProblemTitle(), request.getProblemDescription(), request.getCode());
+    }
+
+    @Benchmark
+    public String extractText() throws IOException {
+        return GeminiClient.extractText(objectMapper.readValue(geminiJson, Map.class));
+    }
+
+    @Benchmark
+    public AIReviewResponse parseResponse() {
+        return AIReviewServiceAccess.toResponse(responseText, false);
+    }
+}
@@ -0,0 +1,119 @@
+package com.compilerai.backend.benchmark;
+
+import com.compilerai.backend.model.Problem;
+import com.compilerai.backend.model.Submission;
+import com.compilerai.backend.model.TestCase;
+import com.compilerai.backend.model.TestCaseRef;
+import com.compilerai.backend.model.TestResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the largest documents the API returns: a judged Submission
+ * with one TestResult per test, and a Problem with its test cases loaded (the
+ * admin edit view). The mapper is configured like Spring Boot's default one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "1000"})
+    public int testCount;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private Submission submission;
+    private Problem problem;
+    private byte[] submissionJson;
+    private byte[] problemJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            code.append("    long v").append(i).append(" = a * ").append(i).append(" + b;\n");
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        List<TestResult> results = new ArrayList<>();
+        List<TestCase> testCases = new ArrayList<>();
+        List<TestCaseRef> refs = new ArrayList<>();
+        for (int i = 0; i < testCount; i++) {
+            String input = (i * 7919L) + " " + (i * 104729L);
+            String expected = String.valueOf(i * 7919L + i * 104729L);
+            TestResult result = new TestResult();
+            result.setInput(input);
+            result.setExpectedOutput(expected);
+            result.setIsCorrect(i % 10 != 0);
+            result.setActualOutput(i % 10 != 0 ? null : expected + "1");
+            result.setSkipped(false);
+            result.setTestIndex(i);
+            result.setSuiteHash("3f2a9c");
+            results.add(result);
+            testCases.add(new TestCase(input, expected));
+            refs.add(new TestCaseRef("in-" + i, "out-" + i, (long) input.length(), (long) expected.length(), "3f2a9c" + i));
+        }
+
+        submission = new Submission();
+        submission.setId("s-1");
+        submission.setProblemId("p-1");
+        submission.setUserId("user-1");
+        submission.setCode(code.toString());
+        submission.setLanguage("cpp");
+        submission.setIsCorrect(false);
+        submission.setVerdict("❌ Failed");
+        submission.setTestResults(results);
+        submission.setStatus(Submission.STATUS_COMPLETED);
+        submission.setQueuedAt(now);
+        submission.setStartedAt(now);
+        submission.setCompletedAt(now);
+        submission.setCreatedAt(now);
+        submission.setUpdatedAt(now);
+
+        problem = new Problem();
+        problem.setId("p-1");
+        problem.setTitle("Sum of Two Numbers");
+        problem.setDescription("Given two integers a and b, print their sum. ".repeat(20));
+        problem.setInputFormat("Two integers a and b");
+        problem.setOutputFormat("a + b");
+        problem.setDifficulty("Easy");
+        problem.setTags(List.of("math", "implementation"));
+        problem.setTestCaseRefs(refs);
+        problem.setTestCases(testCases);
+        problem.setCreatedAt(now);
+        problem.setUpdatedAt(now);
+
+        submissionJson = objectMapper.writeValueAsBytes(submission);
+        problemJson = objectMapper.writeValueAsBytes(problem);
+    }
+
+    @Benchmark
+    public byte[] writeSubmission() throws IOException {
+        return objectMapper.writeValueAsBytes(submission);
+    }
+
+    @Benchmark
+    public Submission readSubmission() throws IOException {
+        return objectMapper.readValue(submissionJson, Submission.class);
+    }
+
+    @Benchmark
+    public byte[] writeProblem() throws IOException {
+        return objectMapper.writeValueAsBytes(problem);
+    }
+
+    @Benchmark
+    public Problem readProblem() throws IOException {
+        return objectMapper.readValue(problemJson, Problem.class);
+    }
+}
@@ -0,0 +1,178 @@
+package com.compilerai.backend.benchmark;
+
+import com.compilerai.backend.security.JwtAuthenticationFilter;
+import com.compilerai.backend.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of JwtAuthenticationFilter per authenticated request. "legacy" replays the
+ * original filter (signing key rebuilt and the token parsed three times);
+ * "uncached" verifies once with the precomputed key (verified-token cache off);
+ * "cached" is a repeat request served from the verified-token cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private OncePerRequestFilter legacyFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private JwtAuthenticationFilter cachedFilter;
+    private String token;
+    private HttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtUtil issuer = new JwtUtil(SECRET, 3_600_000L, 0);
+        token = issuer.generateToken("user-1", "user");
+
+        legacyFilter = new LegacyFilter(SECRET);
+        uncachedFilter = new JwtAuthenticationFilter(new JwtUtil(SECRET, 3_600_000L, 0));
+        cachedFilter = new JwtAuthenticationFilter(new JwtUtil(SECRET, 3_600_000L, 10_000));
+        response = proxy(HttpServletResponse.class, new HashMap<>(), null);
+    }
+
+    @Benchmark
+    public Object legacy() throws Exception {
+        return run(legacyFilter);
+    }
+
+    @Benchmark
+    public Object uncached() throws Exception {
+        return run(uncachedFilter);
+    }
+
+    @Benchmark
+    public Object cached() throws Exception {
+        return run(cachedFilter);
+    }
+
+    private Object run(OncePerRequestFilter filter) throws Exception {
+        HttpServletRequest request = proxy(HttpServletRequest.class, new HashMap<>(), "Bearer " + token);
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    /**
+     * A GET /api/submit/user request carrying the given Authorization header;
+     * everything else answers with defaults.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Map<String, Object> attributes, String authorization) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            switch (method.getName()) {
+                case "getHeader":
+                    return "Authorization".equalsIgnoreCase((String) args[0]) ? authorization : null;
+                case "getMethod":
+                    return "GET";
+                case "getServletPath":
+                case "getRequestURI":
+                    return "/api/submit/user";
+                case "getDispatcherType":
+                    return DispatcherType.REQUEST;
+                case "getAttribute":
+                    return attributes.get((String) args[0]);
+                case "setAttribute":
+                    attributes.put((String) args[0], args[1]);
+                    return null;
+                case "removeAttribute":
+                    attributes.remove((String) args[0]);
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "equals":
+                    return self == args[0];
+                default:
+                    Class<?> returnType = method.getReturnType();
+                    if (returnType == boolean.class) {
+                        return false;
+                    }
+                    if (returnType == int.class) {
+                        return 0;
+                    }
+                    if (returnType == long.class) {
+                        return 0L;
+                    }
+                    return null;
+            }
+        });
+    }
+
+    /**
+     * The filter as it was before single-pass verification.
+     */
+    private static class LegacyFilter extends OncePerRequestFilter {
+
+        private final String secret;
+
+        LegacyFilter(String secret) {
+            this.secret = secret;
+        }
+
+        private Claims extractAllClaims(String token) {
+            return Jwts.parser()
+                    .verifyWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                String token = authHeader.substring(7);
+                try {
+                    if (!extractAllClaims(token).getExpiration().before(new Date())) {
+                        String userId = extractAllClaims(token).get("userId", String.class);
+                        String role = extractAllClaims(token).get("role", String.class);
+
+                        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                                userId,
+                                null,
+                                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
+                        );
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                        request.setAttribute("userId", userId);
+                        request.setAttribute("role", role);
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                    }
+                } catch (Exception e) {
+                    logger.error("JWT Authentication failed: " + e.getMessage());
+                }
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+}
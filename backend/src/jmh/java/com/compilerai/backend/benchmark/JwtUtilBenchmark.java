@@ -0,0 +1,54 @@
+package com.compilerai.backend.benchmark;
+
+import com.compilerai.backend.security.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil on its own: issuing a token at login, a full signature check (cache
+ * off), a repeat verification served from the verified-token cache, and the
+ * older validateToken path that parses the claims on every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtUtil(SECRET, 3_600_000L, 0);
+        cached = new JwtUtil(SECRET, 3_600_000L, 10_000);
+        token = uncached.generateToken("user-1", "user");
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public String generate() {
+        return uncached.generateToken("user-1", "user");
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyUncached() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyCached() {
+        return cached.verify(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return uncached.validateToken(token);
+    }
+}
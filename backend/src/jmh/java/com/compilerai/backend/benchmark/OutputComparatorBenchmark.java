@@ -0,0 +1,60 @@
+package com.compilerai.backend.benchmark;
+
+import com.compilerai.backend.model.CheckerMode;
+import com.compilerai.backend.service.OutputComparator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Output comparison cost: the original trim().equals() against the single-pass
+ * OutputComparator modes, on outputs of growing size. Run with -prof gc to see
+ * the allocation difference.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputComparatorBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int lines;
+
+    private final OutputComparator comparator = new OutputComparator();
+    private String actual;
+    private String expected;
+
+    @Setup
+    public void setUp() {
+        StringBuilder actualBuilder = new StringBuilder();
+        StringBuilder expectedBuilder = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            actualBuilder.append(i).append(' ').append(i * 0.5).append('\n');
+            expectedBuilder.append(i).append(' ').append(i * 0.5).append('\n');
+        }
+        actual = actualBuilder.append("\n\n").toString();
+        expected = expectedBuilder.toString();
+    }
+
+    @Benchmark
+    public boolean trimEquals() {
+        return actual.trim().equals(expected.trim());
+    }
+
+    @Benchmark
+    public boolean exact() {
+        return comparator.matches(actual, expected, CheckerMode.EXACT, null);
+    }
+
+    @Benchmark
+    public boolean whitespaceInsensitive() {
+        return comparator.matches(actual, expected, CheckerMode.WHITESPACE, null);
+    }
+
+    @Benchmark
+    public boolean floatTolerance() {
+        return comparator.matches(actual, expected, CheckerMode.FLOAT, 1e-6);
+    }
+}
@@ -0,0 +1,89 @@
+package com.compilerai.backend.benchmark;
+
+import com.compilerai.backend.dto.BatchCompilerResponse;
+import com.compilerai.backend.dto.CompilerResponse;
+import com.compilerai.backend.model.TestCase;
+import com.compilerai.backend.service.CompilerService;
+import com.compilerai.backend.service.TestCaseRunner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Submission latency for sequential vs. parallel judging against a simulated
+ * compiler service (fixed compile cost plus a per-test round trip).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class ParallelJudgeBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int testCaseCount;
+
+    @Param({"1", "8"})
+    public int parallelism;
+
+    @Param({"20"})
+    public long compileMillis;
+
+    @Param({"2"})
+    public long perTestMillis;
+
+    private TestCaseRunner runner;
+    private List<TestCase> testCases;
+
+    @Setup
+    public void setUp() {
+        CompilerService simulated = new SimulatedCompilerService(compileMillis, perTestMillis);
+        runner = new TestCaseRunner(simulated, Executors.newFixedThreadPool(parallelism), parallelism);
+
+        testCases = new ArrayList<>();
+        for (int i = 0; i < testCaseCount; i++) {
+            testCases.add(new TestCase(i + " " + (i + 1), String.valueOf(2 * i + 1)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        runner.shutdown();
+    }
+
+    @Benchmark
+    public List<CompilerResponse> judge() {
+        return runner.run("cpp", "int main(){}", testCases, parallelism);
+    }
+
+    static class SimulatedCompilerService implements CompilerService {
+
+        private final long compileMillis;
+        private final long perTestMillis;
+
+        SimulatedCompilerService(long compileMillis, long perTestMillis) {
+            this.compileMillis = compileMillis;
+            this.perTestMillis = perTestMillis;
+        }
+
+        @Override
+        public CompilerResponse runCode(String language, String code, String input) {
+            return runBatch(language, code, List.of(input)).getResults().get(0);
+        }
+
+        @Override
+        public BatchCompilerResponse runBatch(String language, String code, List<String> inputs) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(compileMillis + perTestMillis * inputs.size()));
+            List<CompilerResponse> results = new ArrayList<>(inputs.size());
+            for (int i = 0; i < inputs.size(); i++) {
+                results.add(new CompilerResponse("ok", null));
+            }
+            return new BatchCompilerResponse(results, null, null, null);
+        }
+    }
+}
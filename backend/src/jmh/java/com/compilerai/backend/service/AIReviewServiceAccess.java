@@ -0,0 +1,23 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.dto.AIReviewRequest;
+import com.compilerai.backend.dto.AIReviewResponse;
+
+/**
+ * Exposes AIReviewService's package-private prompt and response helpers to the
+ * benchmarks. Part of the jmh source set, which is built with the test classes
+ * and never packaged.
+ */
+public final class AIReviewServiceAccess {
+
+    private AIReviewServiceAccess() {
+    }
+
+    public static String buildPrompt(AIReviewRequest request, boolean hintsOnly) {
+        return AIReviewService.buildPrompt(request, hintsOnly);
+    }
+
+    public static AIReviewResponse toResponse(String responseText, boolean hintsOnly) {
+        return AIReviewService.toResponse(responseText, hintsOnly);
+    }
+}
@@ -0,0 +1,71 @@
+package com.compilerai.backend.loadtest;
+
+import com.compilerai.backend.dto.BatchCompilerRequest;
+import com.compilerai.backend.dto.BatchCompilerResponse;
+import com.compilerai.backend.dto.CompilerRequest;
+import com.compilerai.backend.dto.CompilerResponse;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Stands in for the compiler service (POST /run and /run/batch). A "compile"
+ * costs one draw from the compile latency model and each input one draw from the
+ * run latency model. The "program" prints the sum of the integers in its input,
+ * or that sum plus one when the code contains WRONG_ANSWER, so verdicts are
+ * deterministic. Injected failures answer 500.
+ */
+class CompilerStub extends StubServer {
+
+    static final String WRONG_ANSWER = "WRONG_ANSWER";
+
+    private final LatencyModel runLatency;
+
+    CompilerStub(int port, LatencyModel compileLatency, LatencyModel runLatency, double failureRate) throws IOException {
+        super(port, compileLatency, failureRate);
+        this.runLatency = runLatency;
+
+        route("/run/batch", exchange -> {
+            BatchCompilerRequest request = JSON.readValue(readBody(exchange), BatchCompilerRequest.class);
+            long compileStart = System.currentTimeMillis();
+            latency.sleep();
+            if (shouldFail()) {
+                sendJson(exchange, 500, Map.of("error", "Injected compiler failure"));
+                return;
+            }
+            long runStart = System.currentTimeMillis();
+            BatchCompilerResponse response = new BatchCompilerResponse();
+            for (String input : request.getInputs()) {
+                runLatency.sleep();
+                response.getResults().add(new CompilerResponse(run(request.getCode(), input), null));
+            }
+            // Reported like the real service, so judge.stage compile/run are populated under load
+            response.setCompileMs(runStart - compileStart);
+            response.setRunMs(System.currentTimeMillis() - runStart);
+            sendJson(exchange, 200, response);
+        });
+
+        route("/run", exchange -> {
+            CompilerRequest request = JSON.readValue(readBody(exchange), CompilerRequest.class);
+            latency.sleep();
+            if (shouldFail()) {
+                sendJson(exchange, 500, Map.of("error", "Injected compiler failure"));
+                return;
+            }
+            runLatency.sleep();
+            sendJson(exchange, 200, new CompilerResponse(run(request.getCode(), request.getInput()), null));
+        });
+    }
+
+    static String run(String code, String input) {
+        long sum = 0;
+        if (input != null) {
+            for (String token : input.trim().split("\\s+")) {
+                if (!token.isEmpty()) {
+                    sum += Long.parseLong(token);
+                }
+            }
+        }
+        return String.valueOf(code != null && code.contains(WRONG_ANSWER) ? sum + 1 : sum);
+    }
+}
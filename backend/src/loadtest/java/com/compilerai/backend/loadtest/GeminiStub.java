@@ -0,0 +1,69 @@
+package com.compilerai.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stands in for Gemini's generateContent and streamGenerateContent (alt=sse).
+ * A full answer costs one draw from the latency model; a streamed answer sends
+ * its first chunk after one draw and the rest every chunk interval. Injected
+ * failures answer 429 or 503, like a provider under quota pressure.
+ */
+class GeminiStub extends StubServer {
+
+    private static final String REVIEW = "Review: The code is readable and mostly correct. Some edge cases are not handled.\n"
+            + "Hints:\n- Check the bounds of your loops.\n- Consider the empty input.\n- Avoid recomputing values inside the loop.";
+    private static final String HINTS = "- Think about what the input size allows.\n"
+            + "- Look for a property you can maintain incrementally.\n- Check the edge cases first.";
+    private static final int CHUNK_CHARS = 16;
+
+    private final long chunkIntervalMs;
+
+    GeminiStub(int port, LatencyModel latency, double failureRate, long chunkIntervalMs) throws IOException {
+        super(port, latency, failureRate);
+        this.chunkIntervalMs = chunkIntervalMs;
+
+        route("/v1beta/models/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            JsonNode body = JSON.readTree(readBody(exchange));
+            String prompt = body.path("contents").path(0).path("parts").path(0).path("text").asText("");
+            String answer = prompt.contains("has NOT entered any code") ? HINTS : REVIEW;
+
+            latency.sleep();
+            if (shouldFail()) {
+                int status = ThreadLocalRandom.current().nextBoolean() ? 429 : 503;
+                sendJson(exchange, status, Map.of("error", Map.of("code", status, "message", "Injected failure")));
+                return;
+            }
+
+            if (path.endsWith(":streamGenerateContent")) {
+                exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    for (int i = 0; i < answer.length(); i += CHUNK_CHARS) {
+                        if (i > 0) {
+                            Thread.sleep(chunkIntervalMs);
+                        }
+                        String chunk = answer.substring(i, Math.min(answer.length(), i + CHUNK_CHARS));
+                        out.write(("data: " + JSON.writeValueAsString(candidate(chunk)) + "\r\n\r\n")
+                                .getBytes(StandardCharsets.UTF_8));
+                        out.flush();
+                    }
+                }
+            } else {
+                sendJson(exchange, 200, candidate(answer));
+            }
+        });
+    }
+
+    private static Map<String, Object> candidate(String text) {
+        return Map.of("candidates", List.of(Map.of(
+                "content", Map.of("role", "model", "parts", List.of(Map.of("text", text))))));
+    }
+}
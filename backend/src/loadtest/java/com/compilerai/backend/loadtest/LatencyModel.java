@@ -0,0 +1,76 @@
+package com.compilerai.backend.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latency distribution for a stub, parsed from a spec string:
+ * "fixed:50", "uniform:20:80", "exp:50" (exponential with mean 50) or
+ * "lognormal:50:0.5" (median 50, sigma 0.5). Values are milliseconds.
+ */
+public class LatencyModel {
+
+    private final String kind;
+    private final double a;
+    private final double b;
+
+    private LatencyModel(String kind, double a, double b) {
+        this.kind = kind;
+        this.a = a;
+        this.b = b;
+    }
+
+    public static LatencyModel parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    return new LatencyModel("fixed", Double.parseDouble(parts[1]), 0);
+                case "uniform":
+                    return new LatencyModel("uniform", Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                case "exp":
+                    return new LatencyModel("exp", Double.parseDouble(parts[1]), 0);
+                case "lognormal":
+                    return new LatencyModel("lognormal", Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default:
+                    throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid latency spec: " + spec);
+        }
+    }
+
+    public long sampleMillis() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double millis;
+        switch (kind) {
+            case "uniform":
+                millis = a + random.nextDouble() * (b - a);
+                break;
+            case "exp":
+                millis = -a * Math.log(1 - random.nextDouble());
+                break;
+            case "lognormal":
+                millis = a * Math.exp(b * random.nextGaussian());
+                break;
+            default:
+                millis = a;
+        }
+        return Math.max(0, Math.round(millis));
+    }
+
+    public void sleep() {
+        long millis = sampleMillis();
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return kind + ":" + a + (b != 0 ? ":" + b : "");
+    }
+}
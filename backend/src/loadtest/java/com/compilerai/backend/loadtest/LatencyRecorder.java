@@ -0,0 +1,87 @@
+package com.compilerai.backend.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Collects per-endpoint latencies and status codes during the measured window and
+ * summarizes them as throughput plus p50/p95/p99/max.
+ */
+class LatencyRecorder {
+
+    private final Map<String, Samples> byEndpoint = new ConcurrentSkipListMap<>();
+    private volatile boolean recording;
+
+    void start() {
+        recording = true;
+    }
+
+    void stop() {
+        recording = false;
+    }
+
+    void record(String endpoint, int status, long nanos) {
+        if (recording) {
+            byEndpoint.computeIfAbsent(endpoint, e -> new Samples()).add(status, nanos);
+        }
+    }
+
+    List<EndpointReport> report(double seconds) {
+        List<EndpointReport> reports = new ArrayList<>();
+        byEndpoint.forEach((endpoint, samples) -> reports.add(samples.summarize(endpoint, seconds)));
+        return reports;
+    }
+
+    record EndpointReport(String endpoint, long count, long ok, long throttled, long errors,
+                          double throughput, double p50Ms, double p95Ms, double p99Ms, double maxMs,
+                          Map<Integer, Long> statuses) {
+    }
+
+    private static class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long ok;
+        private long throttled;
+        private long errors;
+        private final Map<Integer, Long> statuses = new ConcurrentHashMap<>();
+
+        synchronized void add(int status, long latency) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latency;
+            statuses.merge(status, 1L, Long::sum);
+            if (status >= 200 && status < 300) {
+                ok++;
+            } else if (status == 429) {
+                throttled++;
+            } else {
+                errors++;
+            }
+        }
+
+        synchronized EndpointReport summarize(String endpoint, double seconds) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return new EndpointReport(endpoint, size, ok, throttled, errors,
+                    seconds > 0 ? size / seconds : 0,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0,
+                    new LinkedHashMap<>(statuses));
+        }
+
+        // Nearest-rank percentile, in milliseconds
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package com.compilerai.backend.loadtest;
+
+import com.compilerai.backend.BackendApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load test. Starts stubs for the compiler service and Gemini, starts
+ * the backend in-process against them and a local MongoDB (or targets a running
+ * backend with --target), seeds users and problems, then runs closed-loop
+ * scenarios and reports throughput and p50/p95/p99 latency per endpoint.
+ *
+ * <pre>
+ * mvn -Ploadtest verify -Dloadtest.args="--scenario=browse --users=64 --duration=60"
+ * </pre>
+ *
+ * Scenarios: browse (problem list and detail), submit-burst (synchronous
+ * judging), ai-review-burst (reviews, hints and streamed reviews), or all.
+ * Options are --name=value; see {@link #DEFAULTS}. Backend properties can be
+ * overridden with --backend.property.name=value.
+ */
+public class LoadTest {
+
+    static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("scenario", "all");
+        DEFAULTS.put("users", "32");
+        DEFAULTS.put("duration", "30");
+        DEFAULTS.put("warmup", "5");
+        DEFAULTS.put("problems", "20");
+        DEFAULTS.put("tests", "10");
+        DEFAULTS.put("accounts", "20");
+        DEFAULTS.put("target", "");
+        DEFAULTS.put("port", "0");
+        DEFAULTS.put("mongo-uri", "mongodb://localhost:27017");
+        DEFAULTS.put("mongo-database", "compiler-ai-loadtest");
+        DEFAULTS.put("compiler-port", "0");
+        DEFAULTS.put("compiler.compile-latency", "lognormal:150:0.4");
+        DEFAULTS.put("compiler.run-latency", "exp:5");
+        DEFAULTS.put("compiler.failure-rate", "0");
+        DEFAULTS.put("gemini-port", "0");
+        DEFAULTS.put("gemini.latency", "lognormal:1200:0.5");
+        DEFAULTS.put("gemini.failure-rate", "0.02");
+        DEFAULTS.put("gemini.chunk-ms", "60");
+        DEFAULTS.put("submit.wrong-ratio", "0.3");
+        DEFAULTS.put("ai.hint-ratio", "0.2");
+        DEFAULTS.put("ai.stream-ratio", "0.2");
+        DEFAULTS.put("ai.unique-ratio", "0.5");
+        DEFAULTS.put("report-dir", "target/loadtest");
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String PASSWORD = "loadtest-password";
+    private static final String CODE = "#include <iostream>\nint main() { long a, b; std::cin >> a >> b; std::cout << a + b; }\n";
+
+    private final Map<String, String> options;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private String baseUrl;
+    private final List<String> tokens = new ArrayList<>();
+    private final List<JsonNode> problems = new ArrayList<>();
+
+    LoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadTest(options).run();
+        System.exit(0);
+    }
+
+    void run() throws Exception {
+        CompilerStub compiler = new CompilerStub(intOption("compiler-port"),
+                LatencyModel.parse(options.get("compiler.compile-latency")),
+                LatencyModel.parse(options.get("compiler.run-latency")),
+                doubleOption("compiler.failure-rate"));
+        GeminiStub gemini = new GeminiStub(intOption("gemini-port"),
+                LatencyModel.parse(options.get("gemini.latency")),
+                doubleOption("gemini.failure-rate"),
+                intOption("gemini.chunk-ms"));
+        compiler.start();
+        gemini.start();
+        System.out.printf("Compiler stub on port %d, Gemini stub on port %d%n", compiler.port(), gemini.port());
+
+        ConfigurableApplicationContext backend = null;
+        try {
+            if (options.get("target").isBlank()) {
+                int port = intOption("port") > 0 ? intOption("port") : freePort();
+                backend = startBackend(port, compiler.port(), gemini.port());
+                baseUrl = "http://127.0.0.1:" + port;
+            } else {
+                baseUrl = options.get("target").replaceAll("/+$", "");
+                System.out.println("Targeting " + baseUrl + "; point its COMPILER_URL and GEMINI_API_URL at the stubs");
+            }
+
+            seed();
+
+            List<String> scenarios = "all".equals(options.get("scenario"))
+                    ? List.of("browse", "submit-burst", "ai-review-burst")
+                    : List.of(options.get("scenario").split(","));
+            for (String scenario : scenarios) {
+                runScenario(scenario.trim(), compiler, gemini);
+            }
+        } finally {
+            if (backend != null) {
+                backend.close();
+            }
+            compiler.stop();
+            gemini.stop();
+        }
+    }
+
+    private ConfigurableApplicationContext startBackend(int port, int compilerPort, int geminiPort) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=" + port,
+                "--spring.data.mongodb.uri=" + options.get("mongo-uri"),
+                "--spring.data.mongodb.database=" + options.get("mongo-database"),
+                "--jwt.secret=loadtest-secret-loadtest-secret-loadtest-secret-loadtest-secret",
+                "--compiler.engine=remote",
+                "--compiler.service.url=http://127.0.0.1:" + compilerPort,
+                "--gemini.api.url=http://127.0.0.1:" + geminiPort,
+                "--gemini.api.key=stub",
+                "--logging.level.com.compilerai=INFO"
+        ));
+        options.forEach((name, value) -> {
+            if (name.startsWith("backend.")) {
+                args.add("--" + name.substring("backend.".length()) + "=" + value);
+            }
+        });
+        return SpringApplication.run(BackendApplication.class, args.toArray(new String[0]));
+    }
+
+    // Users, an admin and problems whose tests are "a b" -> "a+b", matching the compiler stub
+    private void seed() throws Exception {
+        String admin = account("admin", "admin");
+
+        for (int p = 0; p < intOption("problems"); p++) {
+            List<Map<String, String>> testCases = new ArrayList<>();
+            for (int t = 0; t < intOption("tests"); t++) {
+                long a = ThreadLocalRandom.current().nextLong(1_000_000);
+                long b = ThreadLocalRandom.current().nextLong(1_000_000);
+                testCases.add(Map.of("input", a + " " + b, "expectedOutput", String.valueOf(a + b)));
+            }
+            Map<String, Object> problem = new LinkedHashMap<>();
+            problem.put("title", "Load test " + runId + " #" + p);
+            problem.put("description", "Print the sum of two integers (problem " + p + ").");
+            problem.put("inputFormat", "Two integers a and b");
+            problem.put("outputFormat", "a + b");
+            problem.put("difficulty", List.of("Easy", "Medium", "Hard").get(p % 3));
+            problem.put("tags", List.of("math", "loadtest"));
+            problem.put("testCases", testCases);
+
+            Result created = send(post("/api/problems", problem, admin), false);
+            if (created.status != 201) {
+                throw new IllegalStateException("Could not create problem: " + created.status + " " + created.body);
+            }
+            problems.add(JSON.readTree(created.body));
+        }
+
+        for (int u = 0; u < Math.max(1, intOption("accounts")); u++) {
+            tokens.add(account("user" + u, "user"));
+        }
+        System.out.printf("Seeded %d problems and %d accounts%n", problems.size(), tokens.size());
+    }
+
+    private String account(String name, String role) throws Exception {
+        String email = name + "-" + runId + "@loadtest.local";
+        send(post("/api/register", Map.of("name", name, "email", email, "password", PASSWORD, "role", role), null), false);
+        // Logins share a small bcrypt pool and may be told to retry
+        for (int attempt = 0; attempt < 50; attempt++) {
+            Result login = send(post("/api/login", Map.of("email", email, "password", PASSWORD), null), false);
+            if (login.status == 200) {
+                return JSON.readTree(login.body).path("token").asText();
+            }
+            Thread.sleep(200);
+        }
+        throw new IllegalStateException("Could not log in as " + email);
+    }
+
+    private void runScenario(String scenario, StubServer compiler, StubServer gemini) throws Exception {
+        Operation operation = switch (scenario) {
+            case "browse" -> this::browse;
+            case "submit-burst" -> this::submit;
+            case "ai-review-burst" -> this::aiReview;
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        };
+
+        int users = intOption("users");
+        long warmupMs = TimeUnit.SECONDS.toMillis(intOption("warmup"));
+        long durationMs = TimeUnit.SECONDS.toMillis(intOption("duration"));
+        System.out.printf("%nScenario %s: %d users, %ds warmup, %ds measured%n",
+                scenario, users, intOption("warmup"), intOption("duration"));
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        long start = System.currentTimeMillis();
+        long measureFrom = start + warmupMs;
+        long end = measureFrom + durationMs;
+
+        ExecutorService workers = Executors.newFixedThreadPool(users);
+        for (int u = 0; u < users; u++) {
+            String token = tokens.get(u % tokens.size());
+            workers.execute(() -> {
+                while (System.currentTimeMillis() < end) {
+                    try {
+                        operation.run(recorder, token);
+                    } catch (IOException e) {
+                        recorder.record("connection error", 0, 0);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        Thread.sleep(Math.max(0, measureFrom - System.currentTimeMillis()));
+        recorder.start();
+        Thread.sleep(Math.max(0, end - System.currentTimeMillis()));
+        recorder.stop();
+        double seconds = (System.currentTimeMillis() - measureFrom) / 1000.0;
+        workers.shutdownNow();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+
+        List<LatencyRecorder.EndpointReport> reports = recorder.report(seconds);
+        print(reports);
+        write(scenario, seconds, reports, compiler, gemini);
+    }
+
+    private void browse(LatencyRecorder recorder, String token) throws IOException, InterruptedException {
+        if (ThreadLocalRandom.current().nextBoolean()) {
+            timed(recorder, "GET /api/problems", get("/api/problems?limit=50", null));
+        } else {
+            timed(recorder, "GET /api/problems/{id}", get("/api/problems/" + randomProblem().path("id").asText(), null));
+        }
+    }
+
+    private void submit(LatencyRecorder recorder, String token) throws IOException, InterruptedException {
+        boolean wrong = ThreadLocalRandom.current().nextDouble() < doubleOption("submit.wrong-ratio");
+        String code = (wrong ? "// " + CompilerStub.WRONG_ANSWER + "\n" : "") + CODE;
+        Map<String, Object> body = Map.of("code", code, "language", "cpp",
+                "problemId", randomProblem().path("id").asText());
+        timed(recorder, "POST /api/submit", post("/api/submit", body, token));
+    }
+
+    private void aiReview(LatencyRecorder recorder, String token) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        JsonNode problem = randomProblem();
+        boolean hints = random.nextDouble() < doubleOption("ai.hint-ratio");
+        // Unique code defeats the review cache; the rest repeats a handful of variants
+        long variant = random.nextDouble() < doubleOption("ai.unique-ratio") ? sequence.incrementAndGet() : random.nextInt(5);
+        String code = hints ? "" : CODE.replace("long a, b;", "long a, b, v" + variant + " = 0;");
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("code", code);
+        body.put("problemId", problem.path("id").asText());
+        body.put("problemTitle", problem.path("title").asText());
+        body.put("problemDescription", problem.path("description").asText());
+
+        if (random.nextDouble() < doubleOption("ai.stream-ratio")) {
+            stream(recorder, "POST /api/ai-review/stream", post("/api/ai-review/stream", body, token));
+        } else {
+            timed(recorder, hints ? "POST /api/ai-review (hints)" : "POST /api/ai-review", post("/api/ai-review", body, token));
+        }
+    }
+
+    private void timed(LatencyRecorder recorder, String endpoint, HttpRequest request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+        recorder.record(endpoint, response.statusCode(), System.nanoTime() - start);
+    }
+
+    // Records time to the first event and to the end of the stream separately
+    private void stream(LatencyRecorder recorder, String endpoint, HttpRequest request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        int status = response.statusCode();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            boolean first = true;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("event:")) {
+                    if (first) {
+                        recorder.record(endpoint + " (first event)", status, System.nanoTime() - start);
+                        first = false;
+                    }
+                    if (line.contains("error")) {
+                        status = 502;
+                    }
+                }
+            }
+        }
+        recorder.record(endpoint + " (complete)", status, System.nanoTime() - start);
+    }
+
+    private Result send(HttpRequest request, boolean discard) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        return new Result(response.statusCode(), discard ? null : response.body());
+    }
+
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofMinutes(2)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest post(String path, Object body, String token) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofMinutes(2))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private JsonNode randomProblem() {
+        return problems.get(ThreadLocalRandom.current().nextInt(problems.size()));
+    }
+
+    private static void print(List<LatencyRecorder.EndpointReport> reports) {
+        System.out.printf("%-42s %8s %8s %6s %6s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "ok", "429", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (LatencyRecorder.EndpointReport r : reports) {
+            System.out.printf("%-42s %8d %8d %6d %6d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    r.endpoint(), r.count(), r.ok(), r.throttled(), r.errors(), r.throughput(),
+                    r.p50Ms(), r.p95Ms(), r.p99Ms(), r.maxMs());
+        }
+    }
+
+    private void write(String scenario, double seconds, List<LatencyRecorder.EndpointReport> reports,
+                       StubServer compiler, StubServer gemini) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", scenario);
+        report.put("startedAt", LocalDateTime.now().toString());
+        report.put("measuredSeconds", seconds);
+        report.put("options", options);
+        report.put("endpoints", reports);
+        report.put("compilerStub", compiler.stats());
+        report.put("geminiStub", gemini.stats());
+
+        Path dir = Files.createDirectories(Paths.get(options.get("report-dir")));
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = dir.resolve(scenario + "-" + stamp + ".json");
+        JSON.writeValue(file.toFile(), report);
+        System.out.println("Report written to " + file);
+    }
+
+    private int intOption(String name) {
+        return Integer.parseInt(options.get(name));
+    }
+
+    private double doubleOption(String name) {
+        return Double.parseDouble(options.get(name));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Result(int status, String body) {
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run(LatencyRecorder recorder, String token) throws IOException, InterruptedException;
+    }
+}
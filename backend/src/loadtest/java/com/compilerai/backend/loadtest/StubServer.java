@@ -0,0 +1,93 @@
+package com.compilerai.backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base for the embedded HTTP stubs that stand in for the compiler service and
+ * Gemini. Each request sleeps for a latency drawn from the stub's
+ * {@link LatencyModel} and fails with the given probability.
+ */
+abstract class StubServer {
+
+    protected static final ObjectMapper JSON = new ObjectMapper();
+
+    protected final LatencyModel latency;
+    protected final double failureRate;
+    protected final AtomicLong requests = new AtomicLong();
+    protected final AtomicLong failures = new AtomicLong();
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    StubServer(int port, LatencyModel latency, double failureRate) throws IOException {
+        this.latency = latency;
+        this.failureRate = failureRate;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        this.server.setExecutor(executor);
+    }
+
+    protected void route(String path, Handler handler) {
+        server.createContext(path, exchange -> {
+            try (exchange) {
+                requests.incrementAndGet();
+                handler.handle(exchange);
+            } catch (Exception e) {
+                sendJson(exchange, 500, Map.of("error", String.valueOf(e.getMessage())));
+            }
+        });
+    }
+
+    protected boolean shouldFail() {
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            failures.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    protected static void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = JSON.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    protected static String readBody(HttpExchange exchange) throws IOException {
+        return new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    void start() {
+        server.start();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    String stats() {
+        return requests.get() + " requests, " + failures.get() + " injected failures";
+    }
+
+    interface Handler {
+        void handle(HttpExchange exchange) throws Exception;
+    }
+}
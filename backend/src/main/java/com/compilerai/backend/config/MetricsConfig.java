@@ -0,0 +1,21 @@
+package com.compilerai.backend.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+    // Mongo command timings (mongodb.driver.commands) come from the command listener
+    // Spring Boot registers on the Mongo client; percentile histograms for it and the
+    // judge, compiler and AI timers are switched on in application.properties.
+
+    /**
+     * The Mongo listener tags every command with the client's cluster id, which is
+     * new on each start and would open a fresh set of time series per restart.
+     */
+    @Bean
+    public MeterFilter ignoreMongoClusterId() {
+        return MeterFilter.ignoreTags("cluster.id");
+    }
+}
@@ -1,9 +1,75 @@
 package com.compilerai.backend.config;
 
+import com.compilerai.backend.model.Problem;
+import com.compilerai.backend.model.Submission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class MongoConfig {
-    // MongoDB auto-configuration is handled by Spring Boot
-    // This class exists for future custom MongoDB configurations
+    // MongoDB auto-configuration is handled by Spring Boot.
+    // Automatic index creation is off by default, so the annotated indexes that
+    // back hot queries are created explicitly for the entities listed here.
+
+    private static final Logger log = LoggerFactory.getLogger(MongoConfig.class);
+
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(
+            Submission.class,
+            Problem.class
+    );
+
+    // Indexes replaced by ones declared on the entities; dropped at startup
+    private static final Map<Class<?>, List<String>> RETIRED_INDEXES = Map.of(
+            Submission.class, List.of("userId_createdAt", "userId_problemId_createdAt")
+    );
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            for (IndexDefinition index : resolver.resolveIndexFor(entity)) {
+                try {
+                    indexOps.ensureIndex(index);
+                } catch (Exception e) {
+                    log.warn("Could not create index {} on {}: {}", index.getIndexKeys(), entity.getSimpleName(), e.getMessage());
+                }
+            }
+            // After the replacements exist, so queries are never left without an index
+            dropRetiredIndexes(entity, indexOps);
+        }
+    }
+
+    private void dropRetiredIndexes(Class<?> entity, IndexOperations indexOps) {
+        List<String> retired = RETIRED_INDEXES.getOrDefault(entity, List.of());
+        if (retired.isEmpty()) {
+            return;
+        }
+        indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .filter(retired::contains)
+                .forEach(name -> {
+                    try {
+                        indexOps.dropIndex(name);
+                    } catch (Exception e) {
+                        log.warn("Could not drop index {} on {}: {}", name, entity.getSimpleName(), e.getMessage());
+                    }
+                });
+    }
 }
@@ -1,13 +1,18 @@
 package com.compilerai.backend.controller;
 
 import com.compilerai.backend.dto.AIReviewRequest;
-import com.compilerai.backend.dto.AIReviewResponse;
 import com.compilerai.backend.service.AIReviewService;
+import com.compilerai.backend.service.AIRequestScheduler;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -19,16 +24,30 @@ public class AIReviewController {
     @Autowired
     private AIReviewService aiReviewService;
 
+    // Returned as a deferred result: the request thread is released while Gemini answers
     @PostMapping("/ai-review")
-    public ResponseEntity<?> getAIReview(@Valid @RequestBody AIReviewRequest request) {
-        try {
-            AIReviewResponse response = aiReviewService.getAIReview(request);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("message", "Failed to get AI review");
-            error.put("error", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
-        }
+    public Mono<ResponseEntity<?>> getAIReview(@Valid @RequestBody AIReviewRequest request) {
+        return aiReviewService.getAIReview(request)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(AIRequestScheduler.BusyException.class, e -> Mono.just(tooManyRequests(e)))
+                .onErrorResume(e -> {
+                    Map<String, String> error = new HashMap<>();
+                    error.put("message", "Failed to get AI review");
+                    error.put("error", e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error));
+                });
+    }
+
+    @PostMapping(value = "/ai-review/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamAIReview(@Valid @RequestBody AIReviewRequest request) {
+        return aiReviewService.streamAIReview(request);
+    }
+
+    private ResponseEntity<?> tooManyRequests(AIRequestScheduler.BusyException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(error);
     }
 }
@@ -4,9 +4,11 @@ import com.compilerai.backend.dto.AuthResponse;
 import com.compilerai.backend.dto.LoginRequest;
 import com.compilerai.backend.dto.RegisterRequest;
 import com.compilerai.backend.service.AuthService;
+import com.compilerai.backend.service.PasswordHasher;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -28,6 +30,8 @@ public class AuthController {
             Map<String, String> response = new HashMap<>();
             response.put("message", message);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (PasswordHasher.BusyException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
@@ -40,6 +44,8 @@ public class AuthController {
         try {
             AuthResponse response = authService.login(request);
             return ResponseEntity.ok(response);
+        } catch (PasswordHasher.BusyException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
@@ -47,6 +53,14 @@ public class AuthController {
         }
     }
 
+    private ResponseEntity<?> tooManyRequests(PasswordHasher.BusyException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
     @GetMapping("/me")
     public ResponseEntity<?> getMe(HttpServletRequest request) {
         String userId = (String) request.getAttribute("userId");
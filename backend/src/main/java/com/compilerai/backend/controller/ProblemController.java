@@ -1,8 +1,10 @@
 package com.compilerai.backend.controller;
 
+import com.compilerai.backend.dto.ProblemPage;
 import com.compilerai.backend.dto.ProblemRequest;
 import com.compilerai.backend.model.Problem;
 import com.compilerai.backend.service.ProblemService;
+import com.compilerai.backend.service.ProblemStatsService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,9 +21,14 @@ import java.util.Map;
 @RequestMapping("/api/problems")
 public class ProblemController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private ProblemService problemService;
 
+    @Autowired
+    private ProblemStatsService problemStatsService;
+
     @PostMapping
     public ResponseEntity<?> createProblem(
             @Valid @RequestBody ProblemRequest request,
@@ -46,10 +53,20 @@ public class ProblemController {
     }
 
     @GetMapping
-    public ResponseEntity<?> getAllProblems() {
+    public ResponseEntity<?> getAllProblems(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String difficulty,
+            @RequestParam(name = "tag", required = false) List<String> tags) {
         try {
-            List<Problem> problems = problemService.getAllProblems();
-            return ResponseEntity.ok(problems);
+            ProblemPage page = problemService.listProblems(cursor, limit, difficulty, tags);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getProblems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to fetch problems");
@@ -59,8 +76,22 @@ public class ProblemController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProblemById(@PathVariable String id) {
+    public ResponseEntity<?> getProblemById(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "false") boolean includeTestCases,
+            HttpServletRequest httpRequest) {
         try {
+            if (includeTestCases) {
+                String role = (String) httpRequest.getAttribute("role");
+
+                if (!"admin".equals(role)) {
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("message", "Only admins can view test cases"));
+                }
+
+                return ResponseEntity.ok(problemService.getProblemWithTestCases(id));
+            }
+
             Problem problem = problemService.getProblemById(id);
             return ResponseEntity.ok(problem);
         } catch (Exception e) {
@@ -70,6 +101,18 @@ public class ProblemController {
         }
     }
 
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<?> getProblemStats(@PathVariable String id) {
+        try {
+            return ResponseEntity.ok(problemStatsService.getStats(id));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Failed to fetch problem stats");
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateProblem(
             @PathVariable String id,
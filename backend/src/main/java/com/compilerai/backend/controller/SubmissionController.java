@@ -1,17 +1,22 @@
 package com.compilerai.backend.controller;
 
+import com.compilerai.backend.dto.SubmissionPage;
 import com.compilerai.backend.dto.SubmissionRequest;
 import com.compilerai.backend.model.Submission;
+import com.compilerai.backend.service.JudgeQueue;
+import com.compilerai.backend.service.JudgeStreamService;
 import com.compilerai.backend.service.SubmissionService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -21,12 +26,34 @@ public class SubmissionController {
     @Autowired
     private SubmissionService submissionService;
 
+    @Autowired
+    private JudgeQueue judgeQueue;
+
+    @Autowired
+    private JudgeStreamService judgeStreamService;
+
+    @Value("${judge.queue.async-by-default:false}")
+    private boolean asyncByDefault;
+
     @PostMapping
     public ResponseEntity<?> submitCode(
             @Valid @RequestBody SubmissionRequest request,
+            @RequestParam(value = "async", required = false) Boolean async,
             HttpServletRequest httpRequest) {
         try {
             String userId = (String) httpRequest.getAttribute("userId");
+            
+            if (async != null ? async : asyncByDefault) {
+                Submission queued = judgeQueue.enqueue(request, userId);
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("message", "Submission queued⏳");
+                response.put("submissionId", queued.getId());
+                response.put("status", queued.getStatus());
+                
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+            }
+            
             Submission submission = submissionService.submitCode(request, userId);
             
             Map<String, Object> response = new HashMap<>();
@@ -42,12 +69,31 @@ public class SubmissionController {
         }
     }
 
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSubmission(
+            @Valid @RequestBody SubmissionRequest request,
+            HttpServletRequest httpRequest) {
+        String userId = (String) httpRequest.getAttribute("userId");
+        return judgeStreamService.stream(request, userId);
+    }
+
     @GetMapping("/user")
-    public ResponseEntity<?> getUserSubmissions(HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getUserSubmissions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String problemId,
+            @RequestParam(required = false) String verdict,
+            HttpServletRequest httpRequest) {
         try {
             String userId = (String) httpRequest.getAttribute("userId");
-            List<Submission> submissions = submissionService.getUserSubmissions(userId);
-            return ResponseEntity.ok(submissions);
+            SubmissionPage page = submissionService.getSubmissionHistory(userId, cursor, limit, problemId, verdict);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header("X-Next-Cursor", page.getNextCursor());
+            }
+            return response.body(page.getSubmissions());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Error fetching submissions");
@@ -55,4 +101,24 @@ public class SubmissionController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getSubmission(@PathVariable String id, HttpServletRequest httpRequest) {
+        try {
+            String userId = (String) httpRequest.getAttribute("userId");
+            String role = (String) httpRequest.getAttribute("role");
+            Submission submission = submissionService.getSubmission(id);
+            
+            if (!submission.getUserId().equals(userId) && !"admin".equals(role)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("message", "You can only view your own submissions"));
+            }
+            
+            return ResponseEntity.ok(submission);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
 }
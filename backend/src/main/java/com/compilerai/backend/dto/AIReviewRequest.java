@@ -12,6 +12,9 @@ public class AIReviewRequest {
     
     private String code;
     
+    // Optional; lets hint requests (no code) be answered from the problem's stored hints
+    private String problemId;
+    
     @NotBlank(message = "Problem title is required")
     private String problemTitle;
     
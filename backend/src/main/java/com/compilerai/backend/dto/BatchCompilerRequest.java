@@ -0,0 +1,16 @@
+package com.compilerai.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCompilerRequest {
+    private String language;
+    private String code;
+    private List<String> inputs;
+}
@@ -0,0 +1,21 @@
+package com.compilerai.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCompilerResponse {
+    // One entry per input, in request order
+    private List<CompilerResponse> results = new ArrayList<>();
+    // Set when the batch failed as a whole (e.g. compilation error)
+    private String error;
+    // Time spent compiling (0 on a cached build) and running all inputs; null if the engine does not report it
+    private Long compileMs;
+    private Long runMs;
+}
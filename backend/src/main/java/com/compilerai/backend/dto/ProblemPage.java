@@ -0,0 +1,16 @@
+package com.compilerai.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProblemPage {
+    private List<ProblemSummary> problems = new ArrayList<>();
+    private String nextCursor; // null on the last page
+}
@@ -1,5 +1,6 @@
 package com.compilerai.backend.dto;
 
+import com.compilerai.backend.model.CheckerMode;
 import com.compilerai.backend.model.TestCase;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -33,4 +34,10 @@ public class ProblemRequest {
     
     @NotNull(message = "Test cases are required")
     private List<TestCase> testCases;
+    
+    private Integer parallelism; // concurrent test case chunks when parallel judging is on; null uses the default
+    
+    private CheckerMode checker; // EXACT (default), WHITESPACE or FLOAT
+    
+    private Double floatTolerance; // absolute/relative tolerance for FLOAT checking
 }
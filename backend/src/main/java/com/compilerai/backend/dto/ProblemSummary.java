@@ -0,0 +1,25 @@
+package com.compilerai.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A problem as shown in the problem list: no description and no test data, but
+ * its submission counters.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProblemSummary {
+    private String id;
+    private String title;
+    private String difficulty;
+    private List<String> tags = new ArrayList<>();
+    private Integer testCaseCount;
+    private Long attempts; // null until the first judged submission
+    private Long accepts;
+}
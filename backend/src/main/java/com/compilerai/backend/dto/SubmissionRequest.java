@@ -18,4 +18,6 @@ public class SubmissionRequest {
     
     @NotBlank(message = "Problem ID is required")
     private String problemId;
+    
+    private Boolean failFast; // stop at the first failing test; null uses judge.fail-fast.enabled
 }
@@ -0,0 +1,24 @@
+package com.compilerai.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A submission as shown in the history list: no code and no test results.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionSummary {
+    private String id;
+    private String problemId;
+    private String problemTitle;
+    private String language;
+    private String verdict;
+    private Boolean isCorrect;
+    private String status;
+    private LocalDateTime createdAt;
+}
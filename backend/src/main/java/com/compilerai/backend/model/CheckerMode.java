@@ -0,0 +1,10 @@
+package com.compilerai.backend.model;
+
+/**
+ * How a test's actual output is compared with its expected output.
+ */
+public enum CheckerMode {
+    EXACT,      // identical after trimming leading/trailing whitespace of the whole output
+    WHITESPACE, // same whitespace-separated tokens, however they are spaced or broken into lines
+    FLOAT       // like WHITESPACE, but numeric tokens may differ by the problem's float tolerance
+}
@@ -1,13 +1,17 @@
 package com.compilerai.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -17,6 +21,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "problems")
+@CompoundIndex(name = "difficulty_id", def = "{'difficulty': 1, '_id': 1}")
 public class Problem {
     
     @Id
@@ -33,11 +38,39 @@ public class Problem {
     
     private String difficulty; // "Easy", "Medium", or "Hard"
     
+    @Indexed
     private List<String> tags = new ArrayList<>();
     
     private String createdBy;
     
-    private List<TestCase> testCases = new ArrayList<>();
+    // Test data lives in GridFS; only references, sizes and hashes are stored here
+    private List<TestCaseRef> testCaseRefs = new ArrayList<>();
+    
+    // Loaded on demand (e.g. for the admin edit view), never persisted
+    @Transient
+    private List<TestCase> testCases;
+    
+    // Test cases embedded by older versions, until the test data migration moves them
+    @JsonIgnore
+    @Field("testCases")
+    private List<TestCase> embeddedTestCases;
+    
+    private Integer parallelism; // concurrent test case chunks when parallel judging is on; null uses the default
+    
+    private CheckerMode checker; // EXACT (default), WHITESPACE or FLOAT
+    
+    private Double floatTolerance; // absolute/relative tolerance for FLOAT checking
+    
+    // AI hints generated in the background from the title and description; served by /api/ai-review
+    @JsonIgnore
+    private String hints;
+    
+    // Hash of the title and description the stored hints were generated from
+    @JsonIgnore
+    private String hintsSourceHash;
+    
+    @JsonIgnore
+    private LocalDateTime hintsGeneratedAt;
     
     @CreatedDate
     private LocalDateTime createdAt;
@@ -0,0 +1,42 @@
+package com.compilerai.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-problem submission counters, updated in place as each submission is judged.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "problem_stats")
+public class ProblemStats {
+    
+    @Id
+    private String problemId;
+    
+    private long attempts;
+    
+    private long accepts;
+    
+    private Map<String, Long> attemptsByLanguage = new HashMap<>();
+    
+    private Map<String, Long> acceptsByLanguage = new HashMap<>();
+    
+    // Failed (not skipped) runs per test index, for the test suite identified by suiteHash
+    private Map<String, Long> failuresByTest = new HashMap<>();
+    
+    private String suiteHash;
+    
+    // Bumped when the rebuild swaps in a fresh document; submissions are counted once per generation
+    private long generation;
+    
+    private LocalDateTime updatedAt;
+}
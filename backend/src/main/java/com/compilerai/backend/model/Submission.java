@@ -1,11 +1,14 @@
 package com.compilerai.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -15,17 +18,35 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "submissions")
+@CompoundIndex(name = "status_queuedAt", def = "{'status': 1, 'queuedAt': 1}")
+// History pages sort on (createdAt, _id), so _id is part of the keys for the sort to use the index
+@CompoundIndex(name = "userId_createdAt_id", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "userId_problemId_createdAt_id", def = "{'userId': 1, 'problemId': 1, 'createdAt': -1, '_id': -1}")
 public class Submission {
     
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+    
     @Id
     private String id;
     
+    @Indexed
     private String problemId;
     
     private String userId;
     
     private String code;
     
+    // Gzipped code at rest; SubmissionStore moves it back into code on read
+    @JsonIgnore
+    private byte[] compressedCode;
+    
+    // SubmissionStore.STORAGE_VERSION once saved in compact form
+    @JsonIgnore
+    private Integer storageVersion;
+    
     private String language;
     
     private String input;
@@ -40,6 +61,31 @@ public class Submission {
     
     private List<TestResult> testResults;
     
+    private Boolean failFast;
+    
+    private String status; // PENDING, RUNNING, COMPLETED or FAILED
+    
+    private String error;
+    
+    private Integer attempts = 0;
+    
+    private LocalDateTime queuedAt;
+    
+    private LocalDateTime startedAt;
+    
+    // Set by the judge worker holding the submission; renewed while it judges
+    @JsonIgnore
+    private String claimToken;
+    
+    @JsonIgnore
+    private LocalDateTime heartbeatAt;
+    
+    // ProblemStats generation this submission has been counted in
+    @JsonIgnore
+    private Long statsGeneration;
+    
+    private LocalDateTime completedAt;
+    
     @CreatedDate
     private LocalDateTime createdAt;
     
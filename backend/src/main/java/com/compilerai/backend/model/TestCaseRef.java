@@ -0,0 +1,19 @@
+package com.compilerai.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pointer to a test case whose input and expected output live in GridFS.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TestCaseRef {
+    private String inputFileId;
+    private String outputFileId;
+    private Long inputSize;
+    private Long outputSize;
+    private String sha256; // of input + '\0' + expected output
+}
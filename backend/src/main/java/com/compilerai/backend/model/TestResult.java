@@ -8,8 +8,13 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class TestResult {
+    // Returned by the API; at rest they are resolved from testIndex/suiteHash
     private String input;
     private String expectedOutput;
-    private String actualOutput;
+    private String actualOutput; // stored (cut to a prefix) unless identical to the expected output
     private Boolean isCorrect;
+    private Boolean skipped; // not run because fail-fast judging stopped earlier
+    private Integer testIndex; // position in the problem's test suite
+    private String suiteHash; // TestSuite hash the test ran against
+    private Boolean outputTruncated;
 }
@@ -0,0 +1,42 @@
+package com.compilerai.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user submission counters, updated in place as each submission is judged.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "user_stats")
+public class UserStats {
+    
+    @Id
+    private String userId;
+    
+    private long totalSubmissions;
+    
+    private long acceptedSubmissions;
+    
+    private long solvedCount;
+    
+    private List<String> solvedProblemIds = new ArrayList<>();
+    
+    private Map<String, Long> attemptsByProblem = new HashMap<>();
+    
+    private Map<String, Long> submissionsByLanguage = new HashMap<>();
+    
+    private Map<String, Long> solvedByDifficulty = new HashMap<>();
+    
+    private LocalDateTime updatedAt;
+}
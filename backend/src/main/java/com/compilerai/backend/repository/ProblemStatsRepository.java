@@ -0,0 +1,9 @@
+package com.compilerai.backend.repository;
+
+import com.compilerai.backend.model.ProblemStats;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProblemStatsRepository extends MongoRepository<ProblemStats, String> {
+}
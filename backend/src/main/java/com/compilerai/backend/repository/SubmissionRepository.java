@@ -8,6 +8,5 @@ import java.util.List;
 
 @Repository
 public interface SubmissionRepository extends MongoRepository<Submission, String> {
-    List<Submission> findByUserIdOrderByCreatedAtDesc(String userId);
     List<Submission> findByProblemId(String problemId);
 }
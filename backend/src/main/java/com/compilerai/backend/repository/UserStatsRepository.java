@@ -0,0 +1,9 @@
+package com.compilerai.backend.repository;
+
+import com.compilerai.backend.model.UserStats;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserStatsRepository extends MongoRepository<UserStats, String> {
+}
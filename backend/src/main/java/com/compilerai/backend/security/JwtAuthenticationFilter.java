@@ -4,7 +4,6 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,12 +13,31 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Set;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    @Autowired
-    private JwtUtil jwtUtil;
+    // Routes that never read the caller's identity
+    private static final Set<String> PUBLIC_PATHS = Set.of("/api/register", "/api/login", "/", "/test", "/actuator/health");
+
+    private final JwtUtil jwtUtil;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (PUBLIC_PATHS.contains(path)) {
+            return true;
+        }
+        // Browsing problems is public; writes and the admin test case view check the role
+        return "GET".equals(request.getMethod())
+                && (path.equals("/api/problems") || path.startsWith("/api/problems/"))
+                && request.getParameter("includeTestCases") == null;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -31,9 +49,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7);
             
             try {
-                if (jwtUtil.validateToken(token)) {
-                    String userId = jwtUtil.extractUserId(token);
-                    String role = jwtUtil.extractRole(token);
+                JwtUtil.VerifiedToken verified = jwtUtil.verify(token);
+                if (verified != null) {
+                    String userId = verified.userId();
+                    String role = verified.role();
                     
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                             userId,
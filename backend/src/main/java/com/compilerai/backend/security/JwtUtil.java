@@ -1,6 +1,9 @@
 package com.compilerai.backend.security;
 
+import com.compilerai.backend.util.Hashing;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -11,19 +14,39 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Long expiration;
+    private final int maxCachedTokens;
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    // Tokens that already passed verification, by SHA-256 of the token; access-ordered, guarded by itself
+    private final Map<String, VerifiedToken> verifiedTokens;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") Long expiration,
+                   @Value("${jwt.cache.max-entries:10000}") int maxCachedTokens) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.expiration = expiration;
+        this.maxCachedTokens = maxCachedTokens;
+        this.verifiedTokens = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > JwtUtil.this.maxCachedTokens;
+            }
+        };
+    }
+
+    /**
+     * The claims the backend needs from a verified token.
+     */
+    public record VerifiedToken(String userId, String role, long expiresAt) {
     }
 
     public String generateToken(String userId, String role) {
@@ -36,16 +59,59 @@ public class JwtUtil {
                 .setSubject(userId)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns its user id and role, or null if the
+     * signature is invalid or the token has expired. Verified tokens are cached
+     * until their expiry, so repeat requests with the same token skip parsing and
+     * signature checks.
+     */
+    public VerifiedToken verify(String token) {
+        String key = maxCachedTokens > 0 ? digest(token) : null;
+        if (key != null) {
+            VerifiedToken cached;
+            synchronized (verifiedTokens) {
+                cached = verifiedTokens.get(key);
+            }
+            if (cached != null) {
+                if (cached.expiresAt() > System.currentTimeMillis()) {
+                    return cached;
+                }
+                synchronized (verifiedTokens) {
+                    verifiedTokens.remove(key);
+                }
+                return null;
+            }
+        }
+
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        if (claims.getExpiration() == null) {
+            return null;
+        }
+
+        VerifiedToken verified = new VerifiedToken(
+                claims.get("userId", String.class),
+                claims.get("role", String.class),
+                claims.getExpiration().getTime()
+        );
+        if (key != null) {
+            synchronized (verifiedTokens) {
+                verifiedTokens.put(key, verified);
+            }
+        }
+        return verified;
+    }
+
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public String extractUserId(String token) {
@@ -67,4 +133,8 @@ public class JwtUtil {
             return false;
         }
     }
+
+    private static String digest(String token) {
+        return Hashing.sha256Hex(token);
+    }
 }
@@ -0,0 +1,255 @@
+package com.compilerai.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Admits calls to the AI provider one job at a time: at most
+ * gemini.scheduler.max-concurrency run at once, and a token bucket paces their
+ * starts to the provider's request quota. Waiting jobs queue by priority class,
+ * then arrival order. The queue is bounded; when it is full, a new job displaces
+ * the newest job of a lower class, or is refused straight away with a
+ * {@link BusyException} that carries a retry-after estimate.
+ */
+@Component
+public class AIRequestScheduler {
+
+    /** Priority classes, most urgent first. */
+    public enum Priority {
+        HINTS, REVIEW, BACKGROUND
+    }
+
+    private enum State {
+        QUEUED, RUNNING, DONE
+    }
+
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final double tokensPerNano;
+    private final double burst;
+    private final ScheduledExecutorService wakeups =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("ai-scheduler-"));
+
+    // Guarded by this
+    private final TreeSet<Job> queue = new TreeSet<>(Comparator
+            .comparingInt((Job job) -> job.priority.ordinal())
+            .thenComparingLong(job -> job.sequence));
+    private long sequence;
+    private int active;
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+    private boolean wakeupScheduled;
+
+    private final Map<Priority, Timer> waitTimers = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+
+    @Autowired
+    public AIRequestScheduler(MeterRegistry meterRegistry,
+                              @Value("${gemini.scheduler.max-concurrency:16}") int maxConcurrency,
+                              @Value("${gemini.scheduler.queue-capacity:200}") int queueCapacity,
+                              @Value("${gemini.scheduler.requests-per-minute:600}") double requestsPerMinute,
+                              @Value("${gemini.scheduler.burst:20}") int burst) {
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+        // A non-positive rate turns pacing off
+        this.tokensPerNano = requestsPerMinute > 0 ? requestsPerMinute / TimeUnit.MINUTES.toNanos(1) : 0;
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase();
+            waitTimers.put(priority, Timer.builder("ai.scheduler.wait").tag("priority", tag)
+                    .description("Time an AI job waits in the queue before it starts")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+            rejected.put(priority, Counter.builder("ai.scheduler.rejected").tag("priority", tag)
+                    .description("AI jobs refused or displaced because the queue was full")
+                    .register(meterRegistry));
+            Gauge.builder("ai.scheduler.queue.depth", this, scheduler -> scheduler.depth(priority))
+                    .tag("priority", tag)
+                    .description("AI jobs waiting to start")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("ai.scheduler.active", this, AIRequestScheduler::activeCount)
+                .description("AI jobs running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the call once the job is admitted. Cancelling while queued gives up the
+     * place in the queue; the slot is held until the call terminates or is cancelled.
+     */
+    public <T> Flux<T> schedule(Priority priority, Supplier<? extends Publisher<T>> call) {
+        return Flux.defer(() -> {
+            Job job;
+            try {
+                job = enqueue(priority);
+            } catch (BusyException e) {
+                return Flux.error(e);
+            }
+            dispatch();
+            return Mono.fromFuture(job.admitted)
+                    .thenMany(Flux.defer(call))
+                    .doFinally(signal -> finish(job));
+        });
+    }
+
+    public <T> Mono<T> scheduleOne(Priority priority, Supplier<? extends Mono<T>> call) {
+        return schedule(priority, call).singleOrEmpty();
+    }
+
+    private Job enqueue(Priority priority) {
+        Job displaced = null;
+        Job job;
+        synchronized (this) {
+            if (queue.size() >= queueCapacity) {
+                Job last = queue.isEmpty() ? null : queue.last();
+                if (last == null || last.priority.ordinal() <= priority.ordinal()) {
+                    rejected.get(priority).increment();
+                    throw new BusyException(retryAfterSeconds());
+                }
+                queue.remove(last);
+                last.state = State.DONE;
+                displaced = last;
+            }
+            job = new Job(priority, sequence++);
+            queue.add(job);
+        }
+        if (displaced != null) {
+            rejected.get(displaced.priority).increment();
+            displaced.admitted.completeExceptionally(new BusyException(retryAfterSeconds()));
+        }
+        return job;
+    }
+
+    private void dispatch() {
+        List<Job> admitted = new ArrayList<>();
+        synchronized (this) {
+            while (active < maxConcurrency && !queue.isEmpty()) {
+                if (!takeToken()) {
+                    scheduleWakeup();
+                    break;
+                }
+                Job job = queue.pollFirst();
+                job.state = State.RUNNING;
+                active++;
+                admitted.add(job);
+            }
+        }
+        // Completed outside the lock: subscribers start their calls on this thread
+        for (Job job : admitted) {
+            waitTimers.get(job.priority).record(System.nanoTime() - job.enqueuedAt, TimeUnit.NANOSECONDS);
+            job.admitted.complete(null);
+        }
+    }
+
+    private void finish(Job job) {
+        synchronized (this) {
+            if (job.state == State.QUEUED) {
+                queue.remove(job);
+            } else if (job.state == State.RUNNING) {
+                active--;
+            }
+            job.state = State.DONE;
+        }
+        dispatch();
+    }
+
+    private boolean takeToken() {
+        if (tokensPerNano <= 0) {
+            return true;
+        }
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    private void scheduleWakeup() {
+        if (wakeupScheduled) {
+            return;
+        }
+        wakeupScheduled = true;
+        long delay = (long) Math.ceil((1 - tokens) / tokensPerNano);
+        wakeups.schedule(() -> {
+            synchronized (this) {
+                wakeupScheduled = false;
+            }
+            dispatch();
+        }, delay, TimeUnit.NANOSECONDS);
+    }
+
+    // Time for the queue ahead to drain at the paced rate, at least one second
+    private synchronized long retryAfterSeconds() {
+        if (tokensPerNano <= 0) {
+            return 1;
+        }
+        double seconds = (queue.size() + 1) / (tokensPerNano * TimeUnit.SECONDS.toNanos(1));
+        return Math.max(1, (long) Math.ceil(seconds));
+    }
+
+    private synchronized double depth(Priority priority) {
+        return queue.stream().filter(job -> job.priority == priority).count();
+    }
+
+    private synchronized double activeCount() {
+        return active;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wakeups.shutdownNow();
+    }
+
+    private static class Job {
+        final Priority priority;
+        final long sequence;
+        final long enqueuedAt = System.nanoTime();
+        final CompletableFuture<Void> admitted = new CompletableFuture<>();
+        State state = State.QUEUED;
+
+        Job(Priority priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+
+    public static class BusyException extends RuntimeException {
+        private final long retryAfterSeconds;
+
+        public BusyException(long retryAfterSeconds) {
+            super("Too many AI review requests right now, please retry shortly");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.dto.AIReviewResponse;
+import com.compilerai.backend.util.BoundedCache;
+import com.compilerai.backend.util.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Caches AI reviews by problem and normalized code, so the same code (ignoring
+ * whitespace and comments) for the same problem is reviewed once, and every user
+ * asking for hints on a problem shares one answer. Entries expire after a TTL and
+ * the least recently used go first when the byte budget is exceeded. Concurrent
+ * identical requests share a single upstream call.
+ */
+@Component
+public class AIReviewCache {
+
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+    private static final int CHARS_PER_TOKEN = 4;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ai.review.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ai.review.cache.ttl-ms:86400000}")
+    private long ttlMs;
+
+    @Value("${ai.review.cache.max-bytes:16777216}")
+    private long maxBytes;
+
+    @Value("${ai.review.cost-per-million-tokens:0}")
+    private double costPerMillionTokens;
+
+    private BoundedCache<String, Entry> entries;
+    private final Map<String, CompletableFuture<AIReviewResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter coalesced;
+    private Counter evictions;
+    private Counter savedMillis;
+    private Counter savedTokens;
+    private Counter savedCost;
+
+    @PostConstruct
+    public void init() {
+        entries = new BoundedCache<>(maxBytes, ttlMs, entry -> evictions.increment());
+        hits = Counter.builder("ai.review.cache.hits").description("AI reviews served from the cache").register(meterRegistry);
+        misses = Counter.builder("ai.review.cache.misses").description("AI reviews that called the model").register(meterRegistry);
+        coalesced = Counter.builder("ai.review.cache.coalesced").description("AI review requests that shared an in-flight model call").register(meterRegistry);
+        evictions = Counter.builder("ai.review.cache.evictions").description("AI review cache entries dropped for size or age").register(meterRegistry);
+        savedMillis = Counter.builder("ai.review.cache.saved.time").baseUnit("milliseconds")
+                .description("Model latency avoided by cache hits and coalesced requests").register(meterRegistry);
+        savedTokens = Counter.builder("ai.review.cache.saved.tokens")
+                .description("Estimated model tokens (prompt plus answer) avoided").register(meterRegistry);
+        savedCost = Counter.builder("ai.review.cache.saved.cost")
+                .description("Estimated model spend avoided, at ai.review.cost-per-million-tokens").register(meterRegistry);
+        Gauge.builder("ai.review.cache.hit.ratio", this, AIReviewCache::hitRatio)
+                .description("Share of AI review requests answered without a new model call")
+                .register(meterRegistry);
+        Gauge.builder("ai.review.cache.bytes", this, AIReviewCache::byteCount).baseUnit("bytes")
+                .description("Estimated size of the cached AI reviews")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Emits the cached review for the key, or subscribes to the loader once for
+     * all concurrent callers. Only responses accepted by cacheable are kept. A
+     * caller that cancels does not cancel the shared call; its answer is still
+     * cached for the next request.
+     */
+    public Mono<AIReviewResponse> get(String key, int promptChars, Supplier<Mono<AIReviewResponse>> loader,
+                                      Predicate<AIReviewResponse> cacheable) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        Entry cached = entries.get(key);
+        if (cached != null) {
+            hits.increment();
+            recordSaving(cached);
+            return Mono.just(cached.response());
+        }
+
+        CompletableFuture<AIReviewResponse> call = new CompletableFuture<>();
+        CompletableFuture<AIReviewResponse> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            coalesced.increment();
+            return Mono.fromFuture(running, true);
+        }
+
+        misses.increment();
+        call.whenComplete((response, error) -> inFlight.remove(key, call));
+        long start = System.currentTimeMillis();
+        try {
+            loader.get().subscribe(response -> {
+                if (cacheable.test(response)) {
+                    store(key, entry(response, promptChars, System.currentTimeMillis() - start));
+                }
+                call.complete(response);
+            }, call::completeExceptionally, () -> call.completeExceptionally(new IllegalStateException("Empty AI response")));
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+        }
+        return Mono.fromFuture(call, true);
+    }
+
+    /**
+     * Returns the cached review for the key, or null on a miss. Used by callers
+     * that talk to the model themselves (streaming) and then {@link #put} the result.
+     */
+    public AIReviewResponse cached(String key) {
+        if (!enabled) {
+            return null;
+        }
+        Entry cached = entries.get(key);
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        recordSaving(cached);
+        return cached.response();
+    }
+
+    public void put(String key, int promptChars, AIReviewResponse response, long loadMillis) {
+        if (enabled) {
+            store(key, entry(response, promptChars, loadMillis));
+        }
+    }
+
+    /**
+     * Cache key for a review: the prompt kind, the problem, and the code with
+     * comments and insignificant whitespace removed.
+     */
+    public static String key(String kind, String problemTitle, String problemDescription, String code) {
+        return Hashing.sha256Hex(kind, problemTitle, problemDescription, normalizeCode(code));
+    }
+
+    /**
+     * Drops C/C++-style comments and whitespace, keeping a single space only where
+     * it separates two identifier or number characters, or two operator characters
+     * ("a - -b" is not "a--b"). Preprocessor directives end at a newline, so each
+     * keeps its own line and its spacing ("#define F (x)" is not "#define F(x)").
+     * String and character literals are copied unchanged.
+     */
+    static String normalizeCode(String code) {
+        if (code == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(code.length());
+        boolean pendingSpace = false;
+        boolean atLineStart = true;
+        boolean directive = false;
+        int i = 0;
+        while (i < code.length()) {
+            char c = code.charAt(i);
+            char next = i + 1 < code.length() ? code.charAt(i + 1) : '\0';
+
+            if (c == '/' && next == '/') {
+                while (i < code.length() && code.charAt(i) != '\n') {
+                    i++;
+                }
+                pendingSpace = true;
+                continue;
+            }
+            if (c == '/' && next == '*') {
+                int end = code.indexOf("*/", i + 2);
+                i = end < 0 ? code.length() : end + 2;
+                pendingSpace = true;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                if (c == '\n') {
+                    atLineStart = true;
+                    // A backslash before the newline continues the directive
+                    if (directive && out.charAt(out.length() - 1) != '\\') {
+                        out.append('\n');
+                        directive = false;
+                        pendingSpace = false;
+                        i++;
+                        continue;
+                    }
+                }
+                pendingSpace = true;
+                i++;
+                continue;
+            }
+
+            if (c == '#' && atLineStart) {
+                if (out.length() > 0 && out.charAt(out.length() - 1) != '\n') {
+                    out.append('\n');
+                }
+                directive = true;
+                pendingSpace = false;
+            }
+            atLineStart = false;
+
+            if (pendingSpace && out.length() > 0
+                    && (directive || separatesTokens(out.charAt(out.length() - 1), c))) {
+                out.append(' ');
+            }
+            pendingSpace = false;
+
+            if (c == '"' || c == '\'') {
+                int start = i++;
+                while (i < code.length() && code.charAt(i) != c) {
+                    i += code.charAt(i) == '\\' ? 2 : 1;
+                }
+                i = Math.min(i + 1, code.length());
+                out.append(code, start, i);
+                continue;
+            }
+            out.append(c);
+            i++;
+        }
+        return out.toString();
+    }
+
+    private Entry entry(AIReviewResponse response, int promptChars, long loadMillis) {
+        long answerChars = length(response.getReview()) + length(response.getHints());
+        return new Entry(response, ENTRY_OVERHEAD_BYTES + answerChars, System.currentTimeMillis() + ttlMs,
+                loadMillis, (promptChars + answerChars) / CHARS_PER_TOKEN);
+    }
+
+    private void recordSaving(Entry entry) {
+        savedMillis.increment(entry.loadMillis());
+        savedTokens.increment(entry.tokens());
+        savedCost.increment(entry.tokens() * costPerMillionTokens / 1_000_000);
+    }
+
+    private void store(String key, Entry entry) {
+        entries.put(key, entry, entry.size());
+    }
+
+    private double hitRatio() {
+        double served = hits.count() + coalesced.count();
+        double total = served + misses.count();
+        return total > 0 ? served / total : 0.0;
+    }
+
+    private double byteCount() {
+        return entries.weight();
+    }
+
+    // Whether dropping the whitespace between the two would join them into another token
+    private static boolean separatesTokens(char before, char after) {
+        return isWordChar(before) && isWordChar(after) || isOperatorChar(before) && isOperatorChar(after);
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static boolean isOperatorChar(char c) {
+        return "+-*/%<>=!&|^~:.?".indexOf(c) >= 0;
+    }
+
+    private static long length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private record Entry(AIReviewResponse response, long size, long expiresAt, long loadMillis, long tokens) {
+    }
+}
@@ -2,38 +2,180 @@ package com.compilerai.backend.service;
 
 import com.compilerai.backend.dto.AIReviewRequest;
 import com.compilerai.backend.dto.AIReviewResponse;
-import org.springframework.beans.factory.annotation.Value;
+import com.compilerai.backend.model.Problem;
+import com.compilerai.backend.repository.ProblemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class AIReviewService {
 
-    @Value("${gemini.api.key}")
-    private String geminiApiKey;
+    @Autowired
+    private GeminiClient geminiClient;
 
-    private static final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-1.5-flash:generateContent";
+    @Autowired
+    private AIReviewCache reviewCache;
 
-    public AIReviewResponse getAIReview(AIReviewRequest request) {
+    @Autowired
+    private ProblemHintService problemHintService;
+
+    @Autowired
+    private ProblemCache problemCache;
+
+    @Autowired
+    private ProblemRepository problemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static final String PARSE_FAILURE = "Failed to parse AI response";
+
+    public Mono<AIReviewResponse> getAIReview(AIReviewRequest request) {
+        boolean hintsOnly = isHintsOnly(request);
+        long start = System.nanoTime();
+        if (hintsOnly) {
+            String stored = storedHints(request);
+            if (stored != null) {
+                recordLatency("unary", hintsOnly, "success", start);
+                return Mono.just(new AIReviewResponse(null, stored));
+            }
+        }
+        String prompt = buildPrompt(request, hintsOnly);
+        return reviewCache.get(cacheKey(request, hintsOnly), prompt.length(), () -> callGemini(prompt, hintsOnly),
+                        response -> !PARSE_FAILURE.equals(response.getReview()) && !PARSE_FAILURE.equals(response.getHints()))
+                .doOnSuccess(response -> recordLatency("unary", hintsOnly, "success", start))
+                .doOnError(e -> recordLatency("unary", hintsOnly, outcome(e), start));
+    }
+
+    /**
+     * Streams the review as Server-Sent Events: "review" and "hints" events carry
+     * each piece of text as the model produces it, then a "done" event carries the
+     * complete review (the same body as the non-streaming endpoint), or an "error"
+     * event if the model could not be reached (with retryAfter seconds when the AI
+     * queue is full). Cached reviews are replayed at once.
+     */
+    public Flux<ServerSentEvent<Object>> streamAIReview(AIReviewRequest request) {
+        boolean hintsOnly = isHintsOnly(request);
+        String prompt = buildPrompt(request, hintsOnly);
+        String key = cacheKey(request, hintsOnly);
+
+        String stored = hintsOnly ? storedHints(request) : null;
+        AIReviewResponse cached = stored != null ? new AIReviewResponse(null, stored) : reviewCache.cached(key);
+        if (cached != null) {
+            List<ServerSentEvent<Object>> events = new ArrayList<>();
+            if (cached.getReview() != null && !cached.getReview().isEmpty()) {
+                events.add(textEvent(ReviewStreamParser.REVIEW, cached.getReview()));
+            }
+            if (cached.getHints() != null && !cached.getHints().isEmpty()) {
+                events.add(textEvent(ReviewStreamParser.HINTS, cached.getHints()));
+            }
+            events.add(event("done", cached));
+            return Flux.fromIterable(events);
+        }
+
+        return Flux.defer(() -> {
+            ReviewStreamParser parser = new ReviewStreamParser(hintsOnly);
+            long start = System.currentTimeMillis();
+            long startNanos = System.nanoTime();
+            return geminiClient.stream(prompt, priority(hintsOnly))
+                    .concatMapIterable(parser::accept)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(parser.finish())))
+                    .map(delta -> textEvent(delta.section(), delta.text()))
+                    .concatWith(Mono.fromCallable(() -> {
+                        recordLatency("stream", hintsOnly, "success", startNanos);
+                        if (parser.text().isEmpty()) {
+                            return event("done", toResponse(PARSE_FAILURE, hintsOnly));
+                        }
+                        AIReviewResponse response = toResponse(parser.text(), hintsOnly);
+                        reviewCache.put(key, prompt.length(), response, System.currentTimeMillis() - start);
+                        return event("done", response);
+                    }))
+                    .onErrorResume(e -> {
+                        recordLatency("stream", hintsOnly, outcome(e), startNanos);
+                        Map<String, Object> error = new HashMap<>();
+                        error.put("message", "Failed to get AI review");
+                        error.put("error", e.getMessage());
+                        if (e instanceof AIRequestScheduler.BusyException busy) {
+                            error.put("retryAfter", busy.getRetryAfterSeconds());
+                        }
+                        return Mono.just(event("error", error));
+                    });
+        });
+    }
+
+    /**
+     * The precomputed hints of the problem the request names (by id, else by its
+     * unique title), or null. A problem without current hints gets them generated
+     * in the background for the next request.
+     */
+    private String storedHints(AIReviewRequest request) {
+        Optional<Problem> problem = request.getProblemId() != null && !request.getProblemId().isBlank()
+                ? problemCache.findById(request.getProblemId())
+                : problemRepository.findByTitle(request.getProblemTitle());
+        if (problem.isEmpty()) {
+            return null;
+        }
+        String hints = problemHintService.storedHints(problem.get());
+        if (hints == null) {
+            problemHintService.refreshInBackground(problem.get());
+        }
+        return hints;
+    }
+
+    /**
+     * ai.review.latency: time until the whole review is available, including
+     * cache hits and stored hints, so its p99 can be set against ai.gemini.latency.
+     */
+    private void recordLatency(String mode, boolean hintsOnly, String outcome, long startNanos) {
+        Timer.builder("ai.review.latency")
+                .description("Time to answer an AI review or hints request")
+                .tag("kind", hintsOnly ? "hints" : "review")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String outcome(Throwable error) {
+        return error instanceof AIRequestScheduler.BusyException ? "busy" : "error";
+    }
+
+    // Hints are short and cheap, so they go ahead of full reviews
+    private static AIRequestScheduler.Priority priority(boolean hintsOnly) {
+        return hintsOnly ? AIRequestScheduler.Priority.HINTS : AIRequestScheduler.Priority.REVIEW;
+    }
+
+    private static boolean isHintsOnly(AIReviewRequest request) {
+        return request.getCode() == null || request.getCode().trim().isEmpty();
+    }
+
+    // Hints depend only on the problem, so every user of a problem shares them
+    private static String cacheKey(AIReviewRequest request, boolean hintsOnly) {
+        return AIReviewCache.key(hintsOnly ? "hints" : "review",
+                request.getProblemTitle(), request.getProblemDescription(), hintsOnly ? "" : request.getCode());
+    }
+
+    /**
+     * The Gemini prompt for a review, or for hints when no code was sent.
+     */
+    static String buildPrompt(AIReviewRequest request, boolean hintsOnly) {
         String prompt;
         
-        if (request.getCode() == null || request.getCode().trim().isEmpty()) {
+        if (hintsOnly) {
             // No code provided - give hints
-            prompt = String.format(
-                    "The user has NOT entered any code.\n" +
-                    "The problem is titled: \"%s\".\n" +
-                    "Description: %s.\n" +
-                    "Give them **only hints and intuition** for solving this problem in 3 bullet points.\n" +
-                    "Do NOT reveal exact code.",
-                    request.getProblemTitle(),
-                    request.getProblemDescription()
-            );
+            prompt = hintPrompt(request.getProblemTitle(), request.getProblemDescription());
         } else {
             // Code provided - give review
             prompt = String.format(
@@ -51,55 +193,60 @@ public class AIReviewService {
             );
         }
 
-        try {
-            WebClient webClient = WebClient.builder().build();
-            
-            Map<String, Object> requestBody = new HashMap<>();
-            Map<String, Object> content = new HashMap<>();
-            Map<String, String> part = new HashMap<>();
-            part.put("text", prompt);
-            content.put("parts", List.of(part));
-            requestBody.put("contents", List.of(content));
-
-            String responseText = webClient.post()
-                    .uri(GEMINI_API_URL + "?key=" + geminiApiKey)
-                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .map(response -> {
-                        try {
-                            List<Map<String, Object>> candidates = (List<Map<String, Object>>) response.get("candidates");
-                            Map<String, Object> firstCandidate = candidates.get(0);
-                            Map<String, Object> contentMap = (Map<String, Object>) firstCandidate.get("content");
-                            List<Map<String, String>> parts = (List<Map<String, String>>) contentMap.get("parts");
-                            return parts.get(0).get("text");
-                        } catch (Exception e) {
-                            return "Failed to parse AI response";
-                        }
-                    })
-                    .block();
-
-            if (request.getCode() == null || request.getCode().trim().isEmpty()) {
-                return new AIReviewResponse(null, responseText);
-            } else {
-                // Try to split into review and hints
-                String review = "";
-                String hints = "";
-                
-                if (responseText.contains("Review:") && responseText.contains("Hints:")) {
-                    String[] parts = responseText.split("Hints:", 2);
-                    String reviewPart = parts[0].replace("Review:", "").trim();
-                    hints = parts[1].trim();
-                    review = reviewPart;
-                } else {
-                    review = responseText;
-                }
-                
-                return new AIReviewResponse(review, hints);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to get AI review: " + e.getMessage());
+        return prompt;
+    }
+
+    static String hintPrompt(String problemTitle, String problemDescription) {
+        return String.format(
+                "The user has NOT entered any code.\n" +
+                "The problem is titled: \"%s\".\n" +
+                "Description: %s.\n" +
+                "Give them **only hints and intuition** for solving this problem in 3 bullet points.\n" +
+                "Do NOT reveal exact code.",
+                problemTitle,
+                problemDescription
+        );
+    }
+
+    private static ServerSentEvent<Object> textEvent(String section, String text) {
+        Map<String, String> data = new HashMap<>();
+        data.put("text", text);
+        return event(section, data);
+    }
+
+    private static ServerSentEvent<Object> event(String name, Object data) {
+        return ServerSentEvent.builder(data).event(name).build();
+    }
+
+    private Mono<AIReviewResponse> callGemini(String prompt, boolean hintsOnly) {
+        return geminiClient.generate(prompt, priority(hintsOnly))
+                .defaultIfEmpty(PARSE_FAILURE)
+                .map(responseText -> toResponse(responseText, hintsOnly))
+                .onErrorMap(e -> !(e instanceof AIRequestScheduler.BusyException),
+                        e -> new RuntimeException("Failed to get AI review: " + e.getMessage()));
+    }
+
+    /**
+     * Splits Gemini's answer into its Review: and Hints: sections.
+     */
+    static AIReviewResponse toResponse(String responseText, boolean hintsOnly) {
+        if (hintsOnly) {
+            return new AIReviewResponse(null, responseText);
+        }
+
+        // Try to split into review and hints
+        String review = "";
+        String hints = "";
+
+        if (responseText.contains("Review:") && responseText.contains("Hints:")) {
+            String[] parts = responseText.split("Hints:", 2);
+            String reviewPart = parts[0].replace("Review:", "").trim();
+            hints = parts[1].trim();
+            review = reviewPart;
+        } else {
+            review = responseText;
         }
+
+        return new AIReviewResponse(review, hints);
     }
 }
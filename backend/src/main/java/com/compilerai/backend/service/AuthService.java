@@ -7,7 +7,10 @@ import com.compilerai.backend.model.User;
 import com.compilerai.backend.repository.UserRepository;
 import com.compilerai.backend.security.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -17,7 +20,10 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
 
     @Autowired
     private JwtUtil jwtUtil;
@@ -30,7 +36,7 @@ public class AuthService {
         User user = new User();
         user.setName(request.getName());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHasher.hash(request.getPassword()));
         user.setRole(request.getRole() != null ? request.getRole() : "user");
 
         userRepository.save(user);
@@ -42,10 +48,20 @@ public class AuthService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new RuntimeException("Invalid credentials");
         }
 
+        // Move the stored hash to the current cost factor while the plain password is at hand
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            String previousHash = user.getPassword();
+            passwordHasher.hashInBackground(request.getPassword(), rehashed -> mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(user.getId()).and("password").is(previousHash)),
+                    Update.update("password", rehashed),
+                    User.class
+            ));
+        }
+
         String token = jwtUtil.generateToken(user.getId(), user.getRole());
 
         AuthResponse.UserInfo userInfo = new AuthResponse.UserInfo(
@@ -1,36 +1,22 @@
 package com.compilerai.backend.service;
 
-import com.compilerai.backend.dto.CompilerRequest;
+import com.compilerai.backend.dto.BatchCompilerResponse;
 import com.compilerai.backend.dto.CompilerResponse;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
-@Service
-public class CompilerService {
+import java.util.List;
 
-    private final WebClient webClient;
+/**
+ * Compiles and runs user code. The implementation is chosen with the
+ * compiler.engine property: "remote" (default) calls the standalone compiler
+ * service, "local" compiles and runs in-process.
+ */
+public interface CompilerService {
 
-    public CompilerService(@Value("${compiler.service.url}") String compilerUrl) {
-        this.webClient = WebClient.builder()
-                .baseUrl(compilerUrl)
-                .build();
-    }
+    CompilerResponse runCode(String language, String code, String input);
 
-    public CompilerResponse runCode(String language, String code, String input) {
-        CompilerRequest request = new CompilerRequest(language, code, input);
-        
-        try {
-            return webClient.post()
-                    .uri("/run")
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(CompilerResponse.class)
-                    .block();
-        } catch (Exception e) {
-            CompilerResponse errorResponse = new CompilerResponse();
-            errorResponse.setError("Failed to execute code: " + e.getMessage());
-            return errorResponse;
-        }
-    }
+    /**
+     * Compiles the code once and runs it against every input, returning one
+     * result per input in the same order.
+     */
+    BatchCompilerResponse runBatch(String language, String code, List<String> inputs);
 }
@@ -0,0 +1,196 @@
+package com.compilerai.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Shared, non-blocking client for the Gemini generateContent and
+ * streamGenerateContent APIs. Connections (and their TLS sessions) are pooled
+ * across requests; connect and read timeouts are bounded, and 429/5xx answers or
+ * failed connections are retried with jittered exponential backoff. Every request
+ * is admitted by the {@link AIRequestScheduler}, which bounds concurrency and
+ * paces requests to the provider quota.
+ */
+@Component
+public class GeminiClient {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<Map<String, Object>>> CHUNK_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient webClient;
+    private final ConnectionProvider connectionProvider;
+    private final String apiKey;
+    private final String model;
+    private final AIRequestScheduler scheduler;
+    private final int maxRetries;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private final Counter retries;
+
+    @Autowired
+    public GeminiClient(MeterRegistry meterRegistry,
+                        AIRequestScheduler scheduler,
+                        @Value("${gemini.api.key}") String apiKey,
+                        @Value("${gemini.api.url:https://generativelanguage.googleapis.com}") String apiUrl,
+                        @Value("${gemini.model:gemini-1.5-flash}") String model,
+                        @Value("${gemini.client.max-connections:50}") int maxConnections,
+                        @Value("${gemini.client.connect-timeout-ms:5000}") int connectTimeoutMs,
+                        @Value("${gemini.client.read-timeout-ms:30000}") long readTimeoutMs,
+                        @Value("${gemini.client.retry.max-attempts:2}") int maxRetries,
+                        @Value("${gemini.client.retry.min-backoff-ms:250}") long minBackoffMs,
+                        @Value("${gemini.client.retry.max-backoff-ms:4000}") long maxBackoffMs) {
+        this.apiKey = apiKey;
+        this.model = model;
+        this.scheduler = scheduler;
+        this.maxRetries = maxRetries;
+        this.minBackoff = Duration.ofMillis(minBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+
+        this.connectionProvider = ConnectionProvider.builder("gemini")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(connectTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(60))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+        this.webClient = WebClient.builder()
+                .baseUrl(apiUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+
+        this.successTimer = Timer.builder("ai.gemini.latency").tag("outcome", "success")
+                .description("Gemini requests, one per attempt")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.failureTimer = Timer.builder("ai.gemini.latency").tag("outcome", "failure")
+                .description("Gemini requests, one per attempt")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.retries = Counter.builder("ai.gemini.retries")
+                .description("Gemini calls retried after a 429, 5xx or connection failure")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends a single-turn prompt and emits the text of the first candidate, or
+     * completes empty when the response carries no text. Each attempt, including
+     * retries, waits for admission by the {@link AIRequestScheduler}.
+     */
+    public Mono<String> generate(String prompt, AIRequestScheduler.Priority priority) {
+        return scheduler.scheduleOne(priority, () -> timed(webClient.post()
+                        .uri("/v1beta/models/{model}:generateContent", model)
+                        .header("x-goog-api-key", apiKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(requestBody(prompt))
+                        .retrieve()
+                        .bodyToMono(Map.class)
+                        .flatMap(response -> Mono.justOrEmpty(extractText(response)))
+                        .flux()).singleOrEmpty())
+                .retryWhen(retrySpec(GeminiClient::isRetryable));
+    }
+
+    /**
+     * Sends a single-turn prompt to streamGenerateContent and emits the text of
+     * each streamed chunk as it arrives. Failures are retried only until the first
+     * chunk has been emitted, so callers never see text twice.
+     */
+    public Flux<String> stream(String prompt, AIRequestScheduler.Priority priority) {
+        return Flux.defer(() -> {
+            AtomicBoolean started = new AtomicBoolean();
+            return scheduler.schedule(priority, () -> timed(webClient.post()
+                            .uri("/v1beta/models/{model}:streamGenerateContent?alt=sse", model)
+                            .header("x-goog-api-key", apiKey)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.TEXT_EVENT_STREAM)
+                            .bodyValue(requestBody(prompt))
+                            .retrieve()
+                            .bodyToFlux(CHUNK_TYPE)
+                            .flatMap(event -> Mono.justOrEmpty(event.data() != null ? extractText(event.data()) : null))))
+                    .doOnNext(text -> started.set(true))
+                    .retryWhen(retrySpec(error -> !started.get() && isRetryable(error)));
+        });
+    }
+
+    private <T> Flux<T> timed(Flux<T> call) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnComplete(() -> successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnError(e -> failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private Retry retrySpec(Predicate<Throwable> retryable) {
+        return Retry.backoff(maxRetries, minBackoff)
+                .maxBackoff(maxBackoff)
+                .jitter(0.5)
+                .filter(retryable)
+                .doBeforeRetry(signal -> retries.increment())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    static Map<String, Object> requestBody(String prompt) {
+        return Map.of("contents", List.of(Map.of("parts", List.of(Map.of("text", prompt)))));
+    }
+
+    /**
+     * Text of the first part of the first candidate, or null if the response does
+     * not have that shape.
+     */
+    @SuppressWarnings("unchecked")
+    public static String extractText(Map<?, ?> response) {
+        try {
+            List<Map<String, Object>> candidates = (List<Map<String, Object>>) response.get("candidates");
+            Map<String, Object> content = (Map<String, Object>) candidates.get(0).get("content");
+            List<Map<String, Object>> parts = (List<Map<String, Object>>) content.get("parts");
+            return (String) parts.get(0).get("text");
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            HttpStatusCode status = response.getStatusCode();
+            return status.value() == 429 || status.is5xxServerError();
+        }
+        // Connection refused/reset and read timeouts
+        return error instanceof WebClientRequestException;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectionProvider.dispose();
+    }
+}
@@ -0,0 +1,16 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.model.TestResult;
+
+/**
+ * Receives each test result as soon as it has been judged. Skipped tests are
+ * reported once judging has stopped. Calls arrive on the judging thread, in
+ * execution order.
+ */
+@FunctionalInterface
+public interface JudgeListener {
+
+    JudgeListener NONE = (index, result) -> { };
+
+    void onTestResult(int index, TestResult result);
+}
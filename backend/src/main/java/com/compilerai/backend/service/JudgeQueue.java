@@ -0,0 +1,239 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.config.RequestIdFilter;
+import com.compilerai.backend.dto.SubmissionRequest;
+import com.compilerai.backend.model.Submission;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable judging queue backed by the submissions collection. Pending submissions
+ * are claimed atomically with findAndModify, so several workers (and several
+ * backend instances) can drain the same queue. A claim carries a token and a
+ * heartbeat the worker renews while judging; submissions whose heartbeat is older
+ * than the stale timeout (their worker crashed) are reclaimed, and the result is
+ * only stored while the token still matches.
+ */
+@Service
+public class JudgeQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(JudgeQueue.class);
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${judge.queue.workers:2}")
+    private int workerCount;
+
+    @Value("${judge.queue.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${judge.queue.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    @Value("${judge.queue.max-attempts:3}")
+    private int maxAttempts;
+
+    // Well under stale-after-ms, so a slow Mongo write does not let a live claim go stale
+    @Value("${judge.queue.heartbeat-ms:60000}")
+    private long heartbeatMs;
+
+    @Value("${judge.queue.depth-refresh-ms:10000}")
+    private long depthRefreshMs;
+
+    private final Object signal = new Object();
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private final AtomicLong pendingCount = new AtomicLong();
+    // Submission id to claim token for the submissions this instance is judging
+    private final Map<String, String> claims = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService maintenance =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("judge-queue-maintenance-"));
+    private volatile boolean running;
+    private ExecutorService workers;
+    private Timer waitTimer;
+
+    public Submission enqueue(SubmissionRequest request, String userId) {
+        Submission submission = submissionService.createPendingSubmission(request, userId);
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        return submission;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Counted on a schedule rather than on every scrape
+        maintenance.scheduleWithFixedDelay(this::refreshPendingCount, 0, depthRefreshMs, TimeUnit.MILLISECONDS);
+        maintenance.scheduleWithFixedDelay(this::renewClaims, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        Gauge.builder("judge.queue.depth", pendingCount, AtomicLong::get)
+                .description("Submissions waiting to be judged")
+                .register(meterRegistry);
+        Gauge.builder("judge.queue.workers.busy", busyWorkers, AtomicInteger::get)
+                .description("Judge workers currently judging a submission")
+                .register(meterRegistry);
+        Gauge.builder("judge.queue.workers.utilization", this, JudgeQueue::utilization)
+                .description("Fraction of judge workers that are busy")
+                .register(meterRegistry);
+        waitTimer = Timer.builder("judge.queue.wait")
+                .description("Time a submission spends queued before a worker picks it up")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        if (workerCount <= 0) {
+            return;
+        }
+        running = true;
+        workers = Executors.newFixedThreadPool(workerCount, new CustomizableThreadFactory("judge-worker-"));
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::workLoop);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        if (workers != null) {
+            workers.shutdown();
+        }
+        maintenance.shutdownNow();
+    }
+
+    private void workLoop() {
+        while (running) {
+            try {
+                Submission claimed = claimNext();
+                if (claimed == null) {
+                    synchronized (signal) {
+                        signal.wait(pollIntervalMs);
+                    }
+                    continue;
+                }
+                process(claimed);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Judge worker error: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void process(Submission submission) {
+        busyWorkers.incrementAndGet();
+        claims.put(submission.getId(), submission.getClaimToken());
+        // Queued judging has no HTTP request; correlate its logs and compiler calls by submission
+        MDC.put(RequestIdFilter.MDC_KEY, "submission-" + submission.getId());
+        try {
+            if (submission.getQueuedAt() != null && submission.getStartedAt() != null) {
+                waitTimer.record(Duration.between(submission.getQueuedAt(), submission.getStartedAt()));
+            }
+
+            if (submission.getAttempts() != null && submission.getAttempts() > maxAttempts) {
+                Update abandon = new Update()
+                        .set("status", Submission.STATUS_FAILED)
+                        .set("error", "Judging abandoned after " + maxAttempts + " attempts")
+                        .set("completedAt", LocalDateTime.now());
+                mongoTemplate.updateFirst(claimedBy(submission.getId(), submission.getClaimToken()), abandon, Submission.class);
+                return;
+            }
+
+            submissionService.judgeQueuedSubmission(submission);
+        } catch (SubmissionStore.ClaimLostException e) {
+            log.warn("Dropped the result of submission {}: {}", submission.getId(), e.getMessage());
+        } finally {
+            claims.remove(submission.getId());
+            MDC.remove(RequestIdFilter.MDC_KEY);
+            busyWorkers.decrementAndGet();
+        }
+    }
+
+    private Submission claimNext() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minus(Duration.ofMillis(staleAfterMs));
+        Criteria claimable = new Criteria().orOperator(
+                Criteria.where("status").is(Submission.STATUS_PENDING),
+                Criteria.where("status").is(Submission.STATUS_RUNNING).and("heartbeatAt").lt(staleBefore),
+                // Claimed before heartbeats existed
+                Criteria.where("status").is(Submission.STATUS_RUNNING).and("heartbeatAt").exists(false)
+                        .and("startedAt").lt(staleBefore)
+        );
+        Query query = new Query(claimable).with(Sort.by(Sort.Direction.ASC, "queuedAt"));
+        Update update = new Update()
+                .set("status", Submission.STATUS_RUNNING)
+                .set("startedAt", now)
+                .set("heartbeatAt", now)
+                .set("claimToken", UUID.randomUUID().toString())
+                .inc("attempts", 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Submission.class);
+    }
+
+    private void renewClaims() {
+        for (Map.Entry<String, String> claim : claims.entrySet()) {
+            try {
+                Update heartbeat = new Update().set("heartbeatAt", LocalDateTime.now());
+                if (mongoTemplate.updateFirst(claimedBy(claim.getKey(), claim.getValue()), heartbeat, Submission.class)
+                        .getMatchedCount() == 0) {
+                    log.warn("Lost the claim on submission {}", claim.getKey());
+                }
+            } catch (Exception e) {
+                log.warn("Could not renew the claim on submission {}: {}", claim.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private static Query claimedBy(String submissionId, String claimToken) {
+        return new Query(Criteria.where("_id").is(submissionId).and("claimToken").is(claimToken));
+    }
+
+    private void refreshPendingCount() {
+        try {
+            pendingCount.set(mongoTemplate.count(
+                    new Query(Criteria.where("status").is(Submission.STATUS_PENDING)), Submission.class));
+        } catch (Exception e) {
+            log.warn("Could not count pending submissions: {}", e.getMessage());
+        }
+    }
+
+    private double utilization() {
+        return workerCount > 0 ? (double) busyWorkers.get() / workerCount : 0.0;
+    }
+}
@@ -0,0 +1,114 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.dto.SubmissionRequest;
+import com.compilerai.backend.model.Submission;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Judges a submission off the request thread and streams it as Server-Sent Events:
+ * one "test" event per test result, then a "verdict" event with the saved submission
+ * (or an "error" event if judging could not run).
+ */
+@Service
+public class JudgeStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(JudgeStreamService.class);
+
+    private final SubmissionService submissionService;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    @Autowired
+    public JudgeStreamService(SubmissionService submissionService,
+                              @Value("${judge.stream.threads:8}") int threads,
+                              @Value("${judge.stream.queue-capacity:64}") int queueCapacity,
+                              @Value("${judge.stream.timeout-ms:120000}") long timeoutMs) {
+        this.submissionService = submissionService;
+        this.timeoutMs = timeoutMs;
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("judge-stream-")
+        );
+    }
+
+    public SseEmitter stream(SubmissionRequest request, String userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+
+        // The pool threads keep no MDC of their own, so hand them the request id
+        Map<String, String> logContext = MDC.getCopyOfContextMap();
+        try {
+            executor.execute(() -> {
+                if (logContext != null) {
+                    MDC.setContextMap(logContext);
+                }
+                try {
+                    judge(request, userId, emitter);
+                } finally {
+                    MDC.clear();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            sendError(emitter, "Judge is busy, please retry shortly");
+        }
+        return emitter;
+    }
+
+    private void judge(SubmissionRequest request, String userId, SseEmitter emitter) {
+        try {
+            Submission submission = submissionService.submitCode(request, userId, (index, result) -> {
+                Map<String, Object> event = new HashMap<>();
+                event.put("index", index);
+                event.put("result", result);
+                send(emitter, "test", event);
+            });
+
+            Map<String, Object> verdict = new HashMap<>();
+            verdict.put("message", "Submission saved✅");
+            verdict.put("submission", submission);
+            send(emitter, "verdict", verdict);
+            emitter.complete();
+        } catch (Exception e) {
+            sendError(emitter, e.getMessage());
+        }
+    }
+
+    private void sendError(SseEmitter emitter, String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", "Submission failed❌");
+        error.put("error", message);
+        send(emitter, "error", error);
+        emitter.complete();
+    }
+
+    // A client that went away must not abort judging; the submission is still saved
+    private void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropped {} event for disconnected client: {}", name, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,73 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.dto.BatchCompilerResponse;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time spent in each stage of judging one submission. Compile and run time are
+ * the engine's own figures, summed over batches (chunks judged in parallel add
+ * up); the other stages are measured by the backend.
+ */
+class JudgeTimings {
+
+    private final long startedAt = System.nanoTime();
+    private final AtomicLong compileMs = new AtomicLong();
+    private final AtomicLong runMs = new AtomicLong();
+    private volatile boolean engineReported;
+    private long loadNanos;
+    private long executeNanos;
+    private long compareNanos;
+
+    void add(BatchCompilerResponse batch) {
+        // Older compiler services do not report timings
+        if (batch.getCompileMs() != null) {
+            compileMs.addAndGet(batch.getCompileMs());
+            engineReported = true;
+        }
+        if (batch.getRunMs() != null) {
+            runMs.addAndGet(batch.getRunMs());
+            engineReported = true;
+        }
+    }
+
+    void addLoad(long nanos) {
+        loadNanos += nanos;
+    }
+
+    void addExecute(long nanos) {
+        executeNanos += nanos;
+    }
+
+    void addCompare(long nanos) {
+        compareNanos += nanos;
+    }
+
+    long getStartedAt() {
+        return startedAt;
+    }
+
+    boolean isEngineReported() {
+        return engineReported;
+    }
+
+    long getCompileMs() {
+        return compileMs.get();
+    }
+
+    long getRunMs() {
+        return runMs.get();
+    }
+
+    long getLoadNanos() {
+        return loadNanos;
+    }
+
+    long getExecuteNanos() {
+        return executeNanos;
+    }
+
+    long getCompareNanos() {
+        return compareNanos;
+    }
+}
@@ -0,0 +1,420 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.dto.BatchCompilerResponse;
+import com.compilerai.backend.dto.CompilerResponse;
+import com.compilerai.backend.util.BoundedCache;
+import com.compilerai.backend.util.Hashing;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Compiles and runs code inside the backend (compiler.engine=local), without the
+ * HTTP hop to the compiler service. g++ and the compiled binaries are driven with
+ * ProcessBuilder; stdin and stdout are piped through NIO channels, so no input
+ * files are written. Each batch borrows a working directory from a fixed pool
+ * (on tmpfs by default). Compiled binaries and compile errors are cached by a hash
+ * of the flags and normalized source, evicting least recently used entries that no
+ * batch is running; concurrent misses on the same source share one g++ run. The
+ * cache index lives in memory, so the cache directory, like the work root, belongs
+ * to one backend process and is emptied at startup.
+ *
+ * g++ and the programs run with an empty environment (only PATH), so submissions
+ * cannot read the backend's secrets from it, and programs run under prlimit with
+ * CPU time, address space and file size limits. This is not a sandbox: programs run
+ * as the backend's user and can see its filesystem, so outside a dedicated container
+ * use the compiler service instead.
+ */
+@Service
+@ConditionalOnProperty(name = "compiler.engine", havingValue = "local")
+public class LocalCompilerService implements CompilerService {
+
+    private static final String SOURCE_FILE = "main.cpp";
+    private static final String EXECUTABLE = "main";
+    private static final int MAX_STDERR_BYTES = 64 * 1024;
+    private static final String CHILD_PATH = "/usr/local/bin:/usr/bin:/bin";
+
+    private final BlockingQueue<Path> workspaces;
+    private final Path cacheDir;
+    private final List<String> compileFlags;
+    private final long compileTimeoutMs;
+    private final long runTimeoutMs;
+    private final int maxOutputBytes;
+    private final List<String> runLimits;
+    private final ExecutorService ioPool = Executors.newCachedThreadPool(new CustomizableThreadFactory("judge-io-"));
+
+    // Artifacts being run are pinned; lease counts are guarded by this
+    private final BoundedCache<String, Artifact> artifacts;
+    // Compiles in progress by cache key; a miss on a key already here waits for it
+    private final Map<String, CompletableFuture<Void>> compiling = new ConcurrentHashMap<>();
+
+    public LocalCompilerService(@Value("${compiler.local.work-root:/dev/shm/compiler-ai}") String workRoot,
+                                @Value("${compiler.local.workspaces:8}") int workspaceCount,
+                                @Value("${compiler.local.cache-dir:${java.io.tmpdir}/compiler-ai-cache}") String cacheDir,
+                                @Value("${compiler.local.cache-max-bytes:536870912}") long maxCacheBytes,
+                                @Value("${compiler.local.cxx-flags:-O2}") String cxxFlags,
+                                @Value("${compiler.local.compile-timeout-ms:10000}") long compileTimeoutMs,
+                                @Value("${compiler.local.run-timeout-ms:5000}") long runTimeoutMs,
+                                @Value("${judge.output.max-bytes:8388608}") int maxOutputBytes,
+                                @Value("${compiler.local.limits.enabled:true}") boolean limitsEnabled,
+                                @Value("${compiler.local.limits.memory-bytes:268435456}") long memoryLimitBytes,
+                                @Value("${compiler.local.limits.file-size-bytes:16777216}") long fileSizeLimitBytes) throws IOException {
+        Path root = Files.createDirectories(Paths.get(workRoot));
+        this.workspaces = new ArrayBlockingQueue<>(workspaceCount);
+        for (int i = 0; i < workspaceCount; i++) {
+            Path workspace = Files.createDirectories(root.resolve("ws-" + i));
+            clean(workspace);
+            workspaces.add(workspace);
+        }
+
+        this.cacheDir = Files.createDirectories(Paths.get(cacheDir));
+        // Binaries left by an earlier process are not in the index and would never be evicted
+        clean(this.cacheDir);
+        this.artifacts = new BoundedCache<>(maxCacheBytes, 0, artifact -> artifact.inUse > 0, this::retire);
+        this.compileFlags = cxxFlags.isBlank() ? List.of() : Arrays.asList(cxxFlags.trim().split("\\s+"));
+        this.compileTimeoutMs = compileTimeoutMs;
+        this.runTimeoutMs = runTimeoutMs;
+        this.maxOutputBytes = maxOutputBytes;
+        this.runLimits = limitsEnabled ? runLimits(runTimeoutMs, memoryLimitBytes, fileSizeLimitBytes) : List.of();
+    }
+
+    /**
+     * A prlimit prefix for running submissions. The CPU limit backs up the wall-clock
+     * timeout for programs that fork. RLIMIT_NPROC is left alone: it counts every
+     * process of the user, including the backend's own threads.
+     */
+    private static List<String> runLimits(long runTimeoutMs, long memoryLimitBytes, long fileSizeLimitBytes) {
+        Path prlimit = Stream.of(CHILD_PATH.split(":"))
+                .map(dir -> Paths.get(dir, "prlimit"))
+                .filter(Files::isExecutable)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(
+                        "compiler.engine=local needs prlimit (util-linux) unless compiler.local.limits.enabled=false"));
+        long cpuSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(runTimeoutMs) + 1);
+        return List.of(prlimit.toString(),
+                "--cpu=" + cpuSeconds,
+                "--as=" + memoryLimitBytes,
+                "--fsize=" + fileSizeLimitBytes,
+                "--core=0",
+                "--");
+    }
+
+    @Override
+    public CompilerResponse runCode(String language, String code, String input) {
+        BatchCompilerResponse batch = runBatch(language, code, List.of(input != null ? input : ""));
+        if (batch.getError() != null || batch.getResults().isEmpty()) {
+            return new CompilerResponse(null, batch.getError());
+        }
+        return batch.getResults().get(0);
+    }
+
+    @Override
+    public BatchCompilerResponse runBatch(String language, String code, List<String> inputs) {
+        BatchCompilerResponse response = new BatchCompilerResponse();
+        if (!"cpp".equalsIgnoreCase(language)) {
+            response.setError("Unsupported language: " + language);
+            return response;
+        }
+
+        Path workspace;
+        try {
+            workspace = workspaces.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.setError("Interrupted while waiting for a workspace");
+            return response;
+        }
+
+        Artifact artifact = null;
+        try {
+            long compileStart = System.nanoTime();
+            artifact = compile(code, workspace);
+            long runStart = System.nanoTime();
+            for (String input : inputs) {
+                response.getResults().add(execute(artifact.executable, workspace, input));
+            }
+            response.setCompileMs(TimeUnit.NANOSECONDS.toMillis(runStart - compileStart));
+            response.setRunMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - runStart));
+        } catch (CompilationException e) {
+            response.setError(e.getMessage());
+        } catch (Exception e) {
+            response.setError("Failed to execute code: " + e.getMessage());
+        } finally {
+            if (artifact != null) {
+                release(artifact);
+            }
+            clean(workspace);
+            workspaces.offer(workspace);
+        }
+        return response;
+    }
+
+    /**
+     * Returns the compiled artifact leased to the caller, who must {@link #release} it.
+     */
+    private Artifact compile(String code, Path workspace) throws IOException, InterruptedException {
+        String key = cacheKey(code);
+        while (true) {
+            Artifact cached = acquire(key);
+            if (cached != null) {
+                if (cached.error != null) {
+                    throw new CompilationException(cached.error);
+                }
+                return cached;
+            }
+
+            CompletableFuture<Void> compile = new CompletableFuture<>();
+            CompletableFuture<Void> running = compiling.putIfAbsent(key, compile);
+            if (running == null) {
+                try {
+                    return compile(code, key, workspace);
+                } catch (IOException | InterruptedException | RuntimeException e) {
+                    compile.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    compiling.remove(key, compile);
+                    compile.complete(null);
+                }
+            }
+            // Look the result up again once the other compile is done; a timeout is shared, other failures are retried
+            try {
+                running.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof CompilationException compilationError) {
+                    throw new CompilationException(compilationError.getMessage());
+                }
+            }
+        }
+    }
+
+    private Artifact compile(String code, String key, Path workspace) throws IOException, InterruptedException {
+        Path source = workspace.resolve(SOURCE_FILE);
+        Path output = workspace.resolve(EXECUTABLE);
+        Files.writeString(source, code, StandardCharsets.UTF_8);
+
+        List<String> command = new ArrayList<>();
+        command.add("g++");
+        command.addAll(compileFlags);
+        command.add(source.toString());
+        command.add("-o");
+        command.add(output.toString());
+
+        Process process = isolated(new ProcessBuilder(command))
+                .directory(workspace.toFile())
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        process.getOutputStream().close();
+        Future<byte[]> stderr = ioPool.submit(() -> drain(process.getErrorStream(), MAX_STDERR_BYTES));
+
+        if (!process.waitFor(compileTimeoutMs, TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly();
+            throw new CompilationException("Compilation error:\nCompilation timed out");
+        }
+        if (process.exitValue() != 0) {
+            String error = "Compilation error:\n" + new String(await(stderr), StandardCharsets.UTF_8);
+            store(key, new Artifact(null, error.length(), error));
+            throw new CompilationException(error);
+        }
+
+        // Unique name, so a binary another batch is still running is never overwritten
+        Path executable = cacheDir.resolve(key + "-" + UUID.randomUUID());
+        Files.move(output, executable, StandardCopyOption.REPLACE_EXISTING);
+        Artifact artifact = new Artifact(executable, Files.size(executable), null);
+        artifact.inUse = 1;
+        store(key, artifact);
+        return artifact;
+    }
+
+    private CompilerResponse execute(Path executable, Path workspace, String input) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(runLimits);
+        command.add(executable.toString());
+        Process process = isolated(new ProcessBuilder(command))
+                .directory(workspace.toFile())
+                .start();
+
+        // Feed stdin and drain stdout/stderr concurrently so a full pipe never blocks the child
+        ioPool.execute(() -> feed(process, input != null ? input : ""));
+        Future<byte[]> stdout = ioPool.submit(() -> drain(process.getInputStream(), maxOutputBytes));
+        Future<byte[]> stderr = ioPool.submit(() -> drain(process.getErrorStream(), MAX_STDERR_BYTES));
+
+        if (!process.waitFor(runTimeoutMs, TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly();
+            return new CompilerResponse(null, "Time limit exceeded");
+        }
+        byte[] output = await(stdout);
+        if (output.length > maxOutputBytes) {
+            return new CompilerResponse(null, "Output limit exceeded");
+        }
+        if (process.exitValue() != 0) {
+            return new CompilerResponse(null, "Runtime error:\n" + new String(await(stderr), StandardCharsets.UTF_8));
+        }
+        return new CompilerResponse(new String(output, StandardCharsets.UTF_8).trim(), null);
+    }
+
+    // The backend's environment holds JWT_SECRET, GEMINI_API_KEY and MONGO_URI
+    private static ProcessBuilder isolated(ProcessBuilder builder) {
+        Map<String, String> environment = builder.environment();
+        environment.clear();
+        environment.put("PATH", CHILD_PATH);
+        return builder;
+    }
+
+    private void feed(Process process, String input) {
+        try (WritableByteChannel stdin = Channels.newChannel(process.getOutputStream())) {
+            ByteBuffer buffer = ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                stdin.write(buffer);
+            }
+        } catch (IOException e) {
+            // The program exited without reading all of its input
+        }
+    }
+
+    /**
+     * Reads the stream to its end, or until more than limit bytes have arrived.
+     * Closing early makes further writes by the child fail with a broken pipe.
+     */
+    private byte[] drain(InputStream stream, int limit) throws IOException {
+        try (ReadableByteChannel channel = Channels.newChannel(stream)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            while (out.size() <= limit && channel.read(buffer) != -1) {
+                buffer.flip();
+                out.write(buffer.array(), 0, buffer.limit());
+                buffer.clear();
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private byte[] await(Future<byte[]> future) throws InterruptedException {
+        try {
+            return future.get(runTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            return new byte[0];
+        }
+    }
+
+    private String cacheKey(String code) {
+        // Line endings and trailing whitespace never change what g++ produces
+        String normalized = code.replace("\r\n", "\n").replace('\r', '\n').stripTrailing();
+        return Hashing.sha256Hex(String.join(" ", compileFlags), normalized);
+    }
+
+    /**
+     * Looks up a cached artifact; a compiled one is leased to the caller.
+     */
+    private synchronized Artifact acquire(String key) {
+        Artifact artifact = artifacts.get(key);
+        if (artifact != null && artifact.executable != null && !Files.exists(artifact.executable)) {
+            artifacts.remove(key);
+            return null;
+        }
+        if (artifact != null && artifact.executable != null) {
+            artifact.inUse++;
+        }
+        return artifact;
+    }
+
+    private synchronized void release(Artifact artifact) {
+        if (artifact.executable == null) {
+            return;
+        }
+        artifact.inUse--;
+        if (artifact.evicted && artifact.inUse == 0) {
+            deleteQuietly(artifact.executable);
+        }
+        // Evictions skipped while it was pinned
+        artifacts.trim();
+    }
+
+    private synchronized void store(String key, Artifact artifact) {
+        Artifact previous = artifacts.put(key, artifact, artifact.size);
+        if (previous != null) {
+            retire(previous);
+        }
+    }
+
+    // Deletes the binary now, or after its last lease is released
+    private void retire(Artifact artifact) {
+        artifact.evicted = true;
+        if (artifact.inUse == 0) {
+            deleteQuietly(artifact.executable);
+        }
+    }
+
+    private void clean(Path workspace) {
+        try (Stream<Path> files = Files.list(workspace)) {
+            files.forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            // Leftovers are overwritten by the next compile
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Best effort
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ioPool.shutdownNow();
+    }
+
+    private static final class Artifact {
+        final Path executable; // null for a cached compile error
+        final long size;
+        final String error;
+        int inUse; // batches running the executable; guarded by the service
+        boolean evicted;
+
+        Artifact(Path executable, long size, String error) {
+            this.executable = executable;
+            this.size = size;
+            this.error = error;
+        }
+    }
+
+    private static class CompilationException extends RuntimeException {
+        CompilationException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.compilerai.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Tag values for per-language and per-problem metrics, with bounded cardinality.
+ * Languages outside the configured list and problems seen after the first
+ * metrics.tags.max-problems distinct ids are all tagged "other", so a flood of
+ * new ids cannot create an unbounded number of time series.
+ */
+@Component
+public class MetricTags {
+
+    public static final String OTHER = "other";
+    public static final String NONE = "none";
+
+    private final Set<String> languages;
+    private final int maxProblems;
+    private final Set<String> problems = ConcurrentHashMap.newKeySet();
+
+    public MetricTags(@Value("${metrics.tags.languages:cpp}") String languages,
+                      @Value("${metrics.tags.max-problems:100}") int maxProblems) {
+        this.languages = Arrays.stream(languages.split(","))
+                .map(language -> language.trim().toLowerCase(Locale.ROOT))
+                .filter(language -> !language.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.maxProblems = maxProblems;
+    }
+
+    public String language(String language) {
+        if (language == null || language.isBlank()) {
+            return NONE;
+        }
+        String normalized = language.trim().toLowerCase(Locale.ROOT);
+        return languages.contains(normalized) ? normalized : OTHER;
+    }
+
+    public String problem(String problemId) {
+        if (problemId == null || problemId.isBlank()) {
+            return NONE;
+        }
+        if (problems.contains(problemId)) {
+            return problemId;
+        }
+        // Racing threads may admit a few ids past the limit; the bound only needs to be rough
+        if (problems.size() < maxProblems) {
+            problems.add(problemId);
+            return problemId;
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,148 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.model.CheckerMode;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compares program output with expected output in a single forward pass over
+ * both character sequences, stopping at the first mismatch. Nothing is trimmed,
+ * split or copied; only tokens that differ textually under FLOAT mode are
+ * parsed as numbers.
+ */
+@Component
+public class OutputComparator {
+
+    public static final double DEFAULT_FLOAT_TOLERANCE = 1e-6;
+
+    public boolean matches(CharSequence actual, CharSequence expected, CheckerMode mode, Double tolerance) {
+        if (mode == null) {
+            mode = CheckerMode.EXACT;
+        }
+        switch (mode) {
+            case WHITESPACE:
+                return tokensMatch(actual, expected, -1);
+            case FLOAT:
+                return tokensMatch(actual, expected, tolerance != null ? tolerance : DEFAULT_FLOAT_TOLERANCE);
+            case EXACT:
+            default:
+                return trimmedEquals(actual, expected);
+        }
+    }
+
+    private boolean trimmedEquals(CharSequence actual, CharSequence expected) {
+        int actualStart = firstNonWhitespace(actual);
+        int actualEnd = lastNonWhitespace(actual, actualStart);
+        int expectedStart = firstNonWhitespace(expected);
+        int expectedEnd = lastNonWhitespace(expected, expectedStart);
+
+        if (actualEnd - actualStart != expectedEnd - expectedStart) {
+            return false;
+        }
+        for (int i = 0; i < actualEnd - actualStart; i++) {
+            if (actual.charAt(actualStart + i) != expected.charAt(expectedStart + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Walks both sequences token by token. A negative tolerance means tokens
+     * must match exactly.
+     */
+    private boolean tokensMatch(CharSequence actual, CharSequence expected, double tolerance) {
+        Tokens actualTokens = new Tokens(actual);
+        Tokens expectedTokens = new Tokens(expected);
+
+        while (true) {
+            boolean hasActual = actualTokens.next();
+            boolean hasExpected = expectedTokens.next();
+            if (!hasActual || !hasExpected) {
+                return hasActual == hasExpected;
+            }
+            if (actualTokens.sameAs(expectedTokens)) {
+                continue;
+            }
+            if (tolerance < 0 || !numbersClose(actualTokens.text(), expectedTokens.text(), tolerance)) {
+                return false;
+            }
+        }
+    }
+
+    private boolean numbersClose(String actual, String expected, double tolerance) {
+        double a;
+        double e;
+        try {
+            a = Double.parseDouble(actual);
+            e = Double.parseDouble(expected);
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+        if (Double.isNaN(a) || Double.isNaN(e)) {
+            return Double.isNaN(a) && Double.isNaN(e);
+        }
+        double diff = Math.abs(a - e);
+        return diff <= tolerance || diff <= tolerance * Math.max(Math.abs(a), Math.abs(e));
+    }
+
+    private static int firstNonWhitespace(CharSequence text) {
+        int i = 0;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int lastNonWhitespace(CharSequence text, int start) {
+        int end = text.length();
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Cursor over the whitespace-separated tokens of a sequence.
+     */
+    private static final class Tokens {
+        private final CharSequence text;
+        private int position;
+        private int start;
+        private int end;
+
+        Tokens(CharSequence text) {
+            this.text = text;
+        }
+
+        boolean next() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+            if (position >= text.length()) {
+                return false;
+            }
+            start = position;
+            while (position < text.length() && !Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+            end = position;
+            return true;
+        }
+
+        boolean sameAs(Tokens other) {
+            if (end - start != other.end - other.start) {
+                return false;
+            }
+            for (int i = 0; i < end - start; i++) {
+                if (text.charAt(start + i) != other.text.charAt(other.start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String text() {
+            return text.subSequence(start, end).toString();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.compilerai.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs bcrypt hashing and verification on a small dedicated pool, so a burst of
+ * logins cannot occupy every request thread. The pool's wait queue is bounded;
+ * when it is full, callers get a {@link BusyException} straight away (the
+ * controllers answer 429).
+ */
+@Service
+public class PasswordHasher {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int strength;
+    private final long waitTimeoutMs;
+    private final int threads;
+
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Counter rejected;
+
+    @Autowired
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${auth.bcrypt.strength:10}") int strength,
+                          @Value("${auth.hash.threads:2}") int threads,
+                          @Value("${auth.hash.queue-capacity:32}") int queueCapacity,
+                          @Value("${auth.hash.wait-timeout-ms:10000}") long waitTimeoutMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+        this.threads = threads;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("bcrypt-")
+        );
+
+        hashTimer = Timer.builder("auth.hash.latency").tag("operation", "hash")
+                .description("Time spent computing a bcrypt hash")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        verifyTimer = Timer.builder("auth.hash.latency").tag("operation", "verify")
+                .description("Time spent verifying a password against its bcrypt hash")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        rejected = Counter.builder("auth.hash.rejected")
+                .description("Hashing requests turned away because the pool queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.hash.pool.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("bcrypt threads currently hashing")
+                .register(meterRegistry);
+        Gauge.builder("auth.hash.pool.queued", executor, e -> e.getQueue().size())
+                .description("Hashing requests waiting for a bcrypt thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.hash.pool.saturation", this, PasswordHasher::saturation)
+                .description("Fraction of the bcrypt pool's threads and queue in use")
+                .register(meterRegistry);
+    }
+
+    public String hash(String rawPassword) {
+        return await(() -> timed(hashTimer, () -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return await(() -> timed(verifyTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * True when the hash was made with a different cost factor than the one
+     * configured now (auth.bcrypt.strength).
+     */
+    public boolean needsRehash(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword != null ? encodedPassword : "");
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    /**
+     * Hashes in the background and hands the result to the callback. If the pool
+     * is busy the work is dropped; callers must treat it as best effort.
+     */
+    public void hashInBackground(String rawPassword, Consumer<String> callback) {
+        try {
+            executor.execute(() -> callback.accept(timed(hashTimer, () -> passwordEncoder.encode(rawPassword))));
+        } catch (RejectedExecutionException e) {
+            // Retried on the next login
+        }
+    }
+
+    private <T> T await(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new BusyException();
+        }
+
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new BusyException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing password");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed: " + e.getCause().getMessage());
+        }
+    }
+
+    private static <T> T timed(Timer timer, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private double saturation() {
+        int capacity = threads + executor.getQueue().size() + executor.getQueue().remainingCapacity();
+        return capacity > 0 ? (double) (executor.getActiveCount() + executor.getQueue().size()) / capacity : 0.0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public static class BusyException extends RuntimeException {
+        public BusyException() {
+            super("Too many sign-in requests right now, please retry shortly");
+        }
+    }
+}
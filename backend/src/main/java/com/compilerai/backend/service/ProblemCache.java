@@ -0,0 +1,203 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.model.Problem;
+import com.compilerai.backend.model.TestCase;
+import com.compilerai.backend.model.TestCaseRef;
+import com.compilerai.backend.repository.ProblemRepository;
+import com.compilerai.backend.util.BoundedCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Read-through cache in front of {@link ProblemRepository} for the judge and the
+ * problem detail view. Holds problems and the test cases loaded from GridFS in one
+ * byte budget; entries expire after a TTL and the least recently used go first
+ * when the budget is exceeded. Writes in {@link ProblemService} invalidate the
+ * problem; test cases are keyed by their GridFS files, which are never rewritten.
+ * Other backend instances see a change once their entry expires, which is why
+ * replaced files are only swept after a longer grace period (see {@link TestDataSweeper}).
+ *
+ * Callers get their own copy of every value, so changing it never reaches the
+ * cache. Every invalidation bumps a generation, and a load that started before
+ * it is returned but not cached, so it cannot put back what was just invalidated.
+ */
+@Component
+public class ProblemCache {
+
+    private static final long ENTRY_OVERHEAD_BYTES = 64;
+
+    @Autowired
+    private ProblemRepository problemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${problems.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${problems.cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    @Value("${problems.cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    private BoundedCache<String, Object> entries;
+    private long generation; // guarded by this
+
+    private Counter hits;
+    private Counter misses;
+    private Counter evictions;
+
+    @PostConstruct
+    public void init() {
+        entries = new BoundedCache<>(maxBytes, ttlMs, value -> evictions.increment());
+        hits = Counter.builder("problem.cache.hits").description("Problem cache lookups served from memory").register(meterRegistry);
+        misses = Counter.builder("problem.cache.misses").description("Problem cache lookups that went to MongoDB or GridFS").register(meterRegistry);
+        evictions = Counter.builder("problem.cache.evictions").description("Problem cache entries dropped for size or age").register(meterRegistry);
+        Gauge.builder("problem.cache.entries", this, ProblemCache::entryCount)
+                .description("Problems and test cases currently cached")
+                .register(meterRegistry);
+        Gauge.builder("problem.cache.bytes", this, ProblemCache::byteCount)
+                .description("Estimated size of the cached problems and test cases")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public Optional<Problem> findById(String id) {
+        if (!enabled) {
+            return problemRepository.findById(id);
+        }
+        Problem problem = get("problem:" + id, () -> problemRepository.findById(id).orElse(null),
+                ProblemCache::weigh, ProblemCache::copy);
+        return Optional.ofNullable(problem);
+    }
+
+    public TestCase testCase(TestCaseRef ref, Supplier<TestCase> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return get("testcase:" + ref.getInputFileId() + ":" + ref.getOutputFileId(), loader,
+                ProblemCache::weigh, ProblemCache::copy);
+    }
+
+    public synchronized void invalidate(String problemId) {
+        generation++;
+        entries.remove("problem:" + problemId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String key, Supplier<T> loader, ToLongFunction<T> weigher, UnaryOperator<T> copier) {
+        Object cached = entries.get(key);
+        if (cached != null) {
+            hits.increment();
+            return copier.apply((T) cached);
+        }
+
+        misses.increment();
+        long loadGeneration = currentGeneration();
+        T value = loader.get();
+        if (value == null) {
+            return null;
+        }
+        T stored = copier.apply(value);
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                entries.put(key, stored, weigher.applyAsLong(stored));
+            }
+        }
+        return value;
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private double entryCount() {
+        return entries.size();
+    }
+
+    private double byteCount() {
+        return entries.weight();
+    }
+
+    private static long weigh(Problem problem) {
+        long size = ENTRY_OVERHEAD_BYTES
+                + length(problem.getTitle())
+                + length(problem.getDescription())
+                + length(problem.getInputFormat())
+                + length(problem.getOutputFormat());
+        if (problem.getTestCaseRefs() != null) {
+            size += problem.getTestCaseRefs().size() * 4L * ENTRY_OVERHEAD_BYTES;
+        }
+        if (problem.getEmbeddedTestCases() != null) {
+            for (TestCase testCase : problem.getEmbeddedTestCases()) {
+                size += weigh(testCase);
+            }
+        }
+        return size;
+    }
+
+    // Field by field, so a field added to Problem must be added here too
+    private static Problem copy(Problem problem) {
+        Problem copy = new Problem();
+        copy.setId(problem.getId());
+        copy.setTitle(problem.getTitle());
+        copy.setDescription(problem.getDescription());
+        copy.setInputFormat(problem.getInputFormat());
+        copy.setOutputFormat(problem.getOutputFormat());
+        copy.setDifficulty(problem.getDifficulty());
+        copy.setTags(problem.getTags() != null ? new ArrayList<>(problem.getTags()) : null);
+        copy.setCreatedBy(problem.getCreatedBy());
+        copy.setTestCaseRefs(copyAll(problem.getTestCaseRefs(), ProblemCache::copy));
+        copy.setTestCases(copyAll(problem.getTestCases(), ProblemCache::copy));
+        copy.setEmbeddedTestCases(copyAll(problem.getEmbeddedTestCases(), ProblemCache::copy));
+        copy.setParallelism(problem.getParallelism());
+        copy.setChecker(problem.getChecker());
+        copy.setFloatTolerance(problem.getFloatTolerance());
+        copy.setHints(problem.getHints());
+        copy.setHintsSourceHash(problem.getHintsSourceHash());
+        copy.setHintsGeneratedAt(problem.getHintsGeneratedAt());
+        copy.setCreatedAt(problem.getCreatedAt());
+        copy.setUpdatedAt(problem.getUpdatedAt());
+        return copy;
+    }
+
+    private static TestCaseRef copy(TestCaseRef ref) {
+        return new TestCaseRef(ref.getInputFileId(), ref.getOutputFileId(), ref.getInputSize(), ref.getOutputSize(), ref.getSha256());
+    }
+
+    private static TestCase copy(TestCase testCase) {
+        return new TestCase(testCase.getInput(), testCase.getExpectedOutput());
+    }
+
+    private static <T> List<T> copyAll(List<T> values, UnaryOperator<T> copier) {
+        if (values == null) {
+            return null;
+        }
+        List<T> copies = new ArrayList<>(values.size());
+        for (T value : values) {
+            copies.add(copier.apply(value));
+        }
+        return copies;
+    }
+
+    private static long weigh(TestCase testCase) {
+        return ENTRY_OVERHEAD_BYTES + length(testCase.getInput()) + length(testCase.getExpectedOutput());
+    }
+
+    private static long length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
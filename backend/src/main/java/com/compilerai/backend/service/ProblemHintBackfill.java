@@ -0,0 +1,58 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.model.Problem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Generates the AI hints of every problem that has none for its current title and
+ * description. Runs in the background after startup when
+ * migration.problem-hints.enabled=true, a few problems at a time.
+ */
+@Component
+public class ProblemHintBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(ProblemHintBackfill.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ProblemHintService problemHintService;
+
+    @Value("${migration.problem-hints.enabled:false}")
+    private boolean enabled;
+
+    @Value("${migration.problem-hints.concurrency:4}")
+    private int concurrency;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+
+        Query query = new Query();
+        query.fields().include("title", "description", "hints", "hintsSourceHash");
+        List<Problem> stale = mongoTemplate.find(query, Problem.class).stream()
+                .filter(problem -> problemHintService.storedHints(problem) == null)
+                .toList();
+        log.info("Generating hints for {} problems", stale.size());
+
+        Flux.fromIterable(stale)
+                .flatMap(problemHintService::generate, Math.max(1, concurrency))
+                .filter(Boolean::booleanValue)
+                .count()
+                .subscribe(generated -> log.info("Generated hints for {} of {} problems", generated, stale.size()));
+    }
+}
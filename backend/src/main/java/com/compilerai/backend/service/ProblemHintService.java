@@ -0,0 +1,117 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.model.Problem;
+import com.compilerai.backend.util.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputes each problem's AI hints. Hints depend only on the title and
+ * description, so they are generated once in the background when a problem is
+ * created or its text changes, stored on the problem, and served from there by
+ * {@link AIReviewService} instead of calling the model per request.
+ */
+@Service
+public class ProblemHintService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProblemHintService.class);
+
+    @Autowired
+    private GeminiClient geminiClient;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ProblemCache problemCache;
+
+    @Value("${problems.hints.enabled:true}")
+    private boolean enabled;
+
+    @Value("${problems.hints.busy-retries:8}")
+    private int busyRetries;
+
+    // Problem id -> source hash of the generation in flight, so repeated saves start one call
+    private final Map<String, String> pending = new ConcurrentHashMap<>();
+
+    /**
+     * The problem's stored hints, or null if none were generated for its current
+     * title and description.
+     */
+    public String storedHints(Problem problem) {
+        if (problem.getHints() == null || problem.getHints().isBlank()) {
+            return null;
+        }
+        return sourceHash(problem).equals(problem.getHintsSourceHash()) ? problem.getHints() : null;
+    }
+
+    /**
+     * Starts generating hints in the background unless the stored ones are current.
+     */
+    public void refreshInBackground(Problem problem) {
+        if (enabled && storedHints(problem) == null) {
+            generate(problem).subscribe();
+        }
+    }
+
+    /**
+     * Generates and stores the problem's hints. Emits true once they are stored,
+     * false if nothing was stored (already in flight, the problem changed
+     * meanwhile, or the model failed).
+     */
+    public Mono<Boolean> generate(Problem problem) {
+        String id = problem.getId();
+        String title = problem.getTitle();
+        String description = problem.getDescription();
+        String hash = sourceHash(problem);
+        if (hash.equals(pending.put(id, hash))) {
+            return Mono.just(false);
+        }
+
+        return geminiClient.generate(AIReviewService.hintPrompt(title, description), AIRequestScheduler.Priority.BACKGROUND)
+                // Lowest priority: displaced or refused whenever user requests fill the queue, so keep trying
+                .retryWhen(Retry.backoff(busyRetries, Duration.ofSeconds(5))
+                        .filter(e -> e instanceof AIRequestScheduler.BusyException))
+                .publishOn(Schedulers.boundedElastic())
+                .map(hints -> store(id, title, description, hash, hints))
+                .defaultIfEmpty(false)
+                .onErrorResume(e -> {
+                    log.warn("Could not generate hints for problem {}: {}", id, e.getMessage());
+                    return Mono.just(false);
+                })
+                .doFinally(signal -> pending.remove(id, hash));
+    }
+
+    private boolean store(String id, String title, String description, String hash, String hints) {
+        // Only if the problem still has the text the hints were generated from
+        Query query = new Query(Criteria.where("_id").is(id).and("title").is(title).and("description").is(description));
+        Update update = new Update()
+                .set("hints", hints)
+                .set("hintsSourceHash", hash)
+                .set("hintsGeneratedAt", LocalDateTime.now());
+        boolean stored = mongoTemplate.updateFirst(query, update, Problem.class).getModifiedCount() > 0;
+        if (stored) {
+            problemCache.invalidate(id);
+        }
+        return stored;
+    }
+
+    static String sourceHash(Problem problem) {
+        return Hashing.sha256Hex(problem.getTitle(), problem.getDescription());
+    }
+}
@@ -1,11 +1,26 @@
 package com.compilerai.backend.service;
 
+import com.compilerai.backend.dto.ProblemPage;
 import com.compilerai.backend.dto.ProblemRequest;
+import com.compilerai.backend.dto.ProblemSummary;
 import com.compilerai.backend.model.Problem;
+import com.compilerai.backend.model.ProblemStats;
+import com.compilerai.backend.model.TestCaseRef;
 import com.compilerai.backend.repository.ProblemRepository;
+import com.compilerai.backend.repository.ProblemStatsRepository;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Service
@@ -14,6 +29,27 @@ public class ProblemService {
     @Autowired
     private ProblemRepository problemRepository;
 
+    @Autowired
+    private TestDataStore testDataStore;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ProblemCache problemCache;
+
+    @Autowired
+    private ProblemStatsRepository problemStatsRepository;
+
+    @Autowired
+    private ProblemHintService problemHintService;
+
+    @Value("${problems.page.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${problems.page.max-limit:200}")
+    private int maxLimit;
+
     public Problem createProblem(ProblemRequest request, String createdBy) {
         if (problemRepository.existsByTitle(request.getTitle())) {
             throw new RuntimeException("Problem with this title already exists");
@@ -26,18 +62,75 @@ public class ProblemService {
         problem.setOutputFormat(request.getOutputFormat());
         problem.setDifficulty(request.getDifficulty());
         problem.setTags(request.getTags());
-        problem.setTestCases(request.getTestCases());
+        problem.setTestCaseRefs(testDataStore.store(request.getTestCases()));
+        problem.setParallelism(request.getParallelism());
+        problem.setChecker(request.getChecker());
+        problem.setFloatTolerance(request.getFloatTolerance());
         problem.setCreatedBy(createdBy);
 
-        return problemRepository.save(problem);
+        Problem saved;
+        try {
+            saved = problemRepository.save(problem);
+        } catch (RuntimeException e) {
+            testDataStore.delete(problem.getTestCaseRefs());
+            throw e;
+        }
+        problemHintService.refreshInBackground(saved);
+        return saved;
     }
 
-    public List<Problem> getAllProblems() {
-        return problemRepository.findAll();
+    /**
+     * One page of problem summaries in id order, optionally filtered by difficulty
+     * and by tags (a problem must carry all of them). The cursor is the id of the
+     * last problem on the previous page, so each page is a single index range scan.
+     */
+    public ProblemPage listProblems(String cursor, Integer limit, String difficulty, List<String> tags) {
+        int pageSize = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+
+        Criteria criteria = new Criteria();
+        if (cursor != null && !cursor.isBlank()) {
+            if (!ObjectId.isValid(cursor)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            criteria = criteria.and("_id").gt(new ObjectId(cursor));
+        }
+        if (difficulty != null && !difficulty.isBlank()) {
+            criteria = criteria.and("difficulty").is(difficulty);
+        }
+        if (tags != null && !tags.isEmpty()) {
+            criteria = criteria.and("tags").all(tags);
+        }
+
+        // Raw field names: problems migrated to GridFS keep refs, older ones still embed testCases
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.sort(Sort.Direction.ASC, "_id"),
+                Aggregation.limit(pageSize + 1),
+                // Only the page's problems are joined with their stats, in the same round trip
+                Aggregation.lookup(mongoTemplate.getCollectionName(ProblemStats.class), "_id", "_id", "stats"),
+                Aggregation.project("title", "difficulty", "tags")
+                        .and(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull("testCaseRefs")
+                                        .orIfNull("testCases")
+                                        .then(Collections.emptyList())))
+                        .as("testCaseCount")
+                        .and(ArrayOperators.ArrayElemAt.arrayOf("stats.attempts").elementAt(0)).as("attempts")
+                        .and(ArrayOperators.ArrayElemAt.arrayOf("stats.accepts").elementAt(0)).as("accepts")
+        );
+
+        List<ProblemSummary> summaries = new ArrayList<>(mongoTemplate.aggregate(
+                aggregation, mongoTemplate.getCollectionName(Problem.class), ProblemSummary.class).getMappedResults());
+
+        String nextCursor = null;
+        if (summaries.size() > pageSize) {
+            summaries = summaries.subList(0, pageSize);
+            nextCursor = summaries.get(pageSize - 1).getId();
+        }
+        return new ProblemPage(summaries, nextCursor);
     }
 
     public Problem getProblemById(String id) {
-        return problemRepository.findById(id)
+        return problemCache.findById(id)
                 .orElseThrow(() -> new RuntimeException("Problem not found"));
     }
 
@@ -51,15 +144,47 @@ public class ProblemService {
         problem.setOutputFormat(request.getOutputFormat());
         problem.setDifficulty(request.getDifficulty());
         problem.setTags(request.getTags());
-        problem.setTestCases(request.getTestCases());
+        // Clients that leave out the judging settings (older admin forms) send nulls; keep what is stored
+        if (request.getParallelism() != null) {
+            problem.setParallelism(request.getParallelism());
+        }
+        if (request.getChecker() != null) {
+            problem.setChecker(request.getChecker());
+        }
+        if (request.getFloatTolerance() != null) {
+            problem.setFloatTolerance(request.getFloatTolerance());
+        }
 
-        return problemRepository.save(problem);
+        // Write the new test data first and retire the old files only once the problem points at the new ones
+        List<TestCaseRef> previousRefs = problem.getTestCaseRefs();
+        problem.setTestCaseRefs(testDataStore.store(request.getTestCases()));
+        problem.setEmbeddedTestCases(null);
+
+        Problem saved = problemRepository.save(problem);
+        problemCache.invalidate(id);
+        testDataStore.retire(previousRefs);
+        // Regenerates the hints only if the title or description changed
+        problemHintService.refreshInBackground(saved);
+        return saved;
+    }
+
+    /**
+     * Loads the problem together with its full test data (for the admin edit view).
+     */
+    public Problem getProblemWithTestCases(String id) {
+        // Read past the cache: the test cases are set on this instance, which must not be shared
+        Problem problem = problemRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Problem not found"));
+        problem.setTestCases(testDataStore.loadAll(problem));
+        return problem;
     }
 
     public void deleteProblem(String id) {
-        if (!problemRepository.existsById(id)) {
-            throw new RuntimeException("Problem not found");
-        }
+        Problem problem = problemRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Problem not found"));
         problemRepository.deleteById(id);
+        problemCache.invalidate(id);
+        problemStatsRepository.deleteById(id);
+        testDataStore.retire(problem.getTestCaseRefs());
     }
 }
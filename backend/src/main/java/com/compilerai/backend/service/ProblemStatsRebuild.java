@@ -0,0 +1,139 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.model.Problem;
+import com.compilerai.backend.model.ProblemStats;
+import com.compilerai.backend.model.Submission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds every problem's {@link ProblemStats} by streaming the judged submissions
+ * through a cursor. Runs at startup when migration.problem-stats.enabled=true.
+ *
+ * Each problem first gets a fresh, zeroed document under a new generation, which
+ * live updates from {@link ProblemStatsService} count into from then on. The rebuild
+ * claims every judged submission for that generation, so it skips the ones already
+ * counted live, then adds its totals on top. Judging can keep running meanwhile.
+ */
+@Component
+public class ProblemStatsRebuild {
+
+    private static final Logger log = LoggerFactory.getLogger(ProblemStatsRebuild.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TestDataStore testDataStore;
+
+    @Autowired
+    private ProblemStatsService problemStatsService;
+
+    @Value("${migration.problem-stats.enabled:false}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        Map<String, ProblemStats> statsByProblem = new HashMap<>();
+        for (Problem problem : mongoTemplate.findAll(Problem.class)) {
+            String suiteHash = testDataStore.suiteFor(problem).hash();
+            Update fresh = new Update()
+                    .inc("generation", 1)
+                    .set("attempts", 0L)
+                    .set("accepts", 0L)
+                    .set("attemptsByLanguage", new HashMap<>())
+                    .set("acceptsByLanguage", new HashMap<>())
+                    .set("failuresByTest", new HashMap<>())
+                    .set("suiteHash", suiteHash)
+                    .set("updatedAt", LocalDateTime.now());
+            ProblemStats swapped = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(problem.getId())), fresh,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), ProblemStats.class);
+
+            ProblemStats stats = new ProblemStats();
+            stats.setProblemId(problem.getId());
+            stats.setSuiteHash(suiteHash);
+            stats.setGeneration(swapped.getGeneration());
+            statsByProblem.put(problem.getId(), stats);
+        }
+
+        try (Stream<Submission> submissions = mongoTemplate.stream(judged(), Submission.class)) {
+            submissions.forEach(submission -> count(statsByProblem.get(submission.getProblemId()), submission));
+        }
+
+        // Submissions judged while the cursor ran may have been claimed for the old generation; pick them up
+        boolean claimed = true;
+        while (claimed) {
+            claimed = false;
+            for (ProblemStats stats : statsByProblem.values()) {
+                Query missed = judged().addCriteria(Criteria.where("problemId").is(stats.getProblemId())
+                        .and("statsGeneration").ne(stats.getGeneration()));
+                try (Stream<Submission> submissions = mongoTemplate.stream(missed, Submission.class)) {
+                    claimed |= submissions.filter(submission -> count(stats, submission)).count() > 0;
+                }
+            }
+        }
+
+        for (ProblemStats stats : statsByProblem.values()) {
+            Update totals = new Update()
+                    .inc("attempts", stats.getAttempts())
+                    .inc("accepts", stats.getAccepts())
+                    .set("updatedAt", LocalDateTime.now());
+            stats.getAttemptsByLanguage().forEach((language, count) -> totals.inc("attemptsByLanguage." + language, count));
+            stats.getAcceptsByLanguage().forEach((language, count) -> totals.inc("acceptsByLanguage." + language, count));
+            mongoTemplate.updateFirst(ProblemStatsService.inGeneration(stats.getProblemId(), stats.getGeneration()),
+                    totals, ProblemStats.class);
+
+            // The histogram only applies while the document still tracks the suite it was rebuilt for
+            if (!stats.getFailuresByTest().isEmpty()) {
+                Update histogram = new Update();
+                stats.getFailuresByTest().forEach((index, count) -> histogram.inc("failuresByTest." + index, count));
+                Query sameSuite = ProblemStatsService.inGeneration(stats.getProblemId(), stats.getGeneration())
+                        .addCriteria(Criteria.where("suiteHash").is(stats.getSuiteHash()));
+                mongoTemplate.updateFirst(sameSuite, histogram, ProblemStats.class);
+            }
+        }
+        log.info("Rebuilt submission stats for {} problems", statsByProblem.size());
+    }
+
+    /**
+     * Claims the submission for the rebuilt generation and adds it to the totals;
+     * false if it was already counted in that generation.
+     */
+    private boolean count(ProblemStats stats, Submission submission) {
+        if (stats == null || !problemStatsService.claim(submission.getId(), stats.getGeneration())) {
+            return false;
+        }
+        ProblemStatsService.accumulate(stats, submission, stats.getSuiteHash());
+        return true;
+    }
+
+    private static Query judged() {
+        // Submissions from before the judge queue have no status; they were judged synchronously
+        Query judged = new Query(new Criteria().orOperator(
+                Criteria.where("status").is(Submission.STATUS_COMPLETED),
+                Criteria.where("status").exists(false)
+        ));
+        judged.fields().include("problemId", "language", "isCorrect",
+                "testResults.isCorrect", "testResults.skipped", "testResults.testIndex", "testResults.suiteHash");
+        return judged;
+    }
+}
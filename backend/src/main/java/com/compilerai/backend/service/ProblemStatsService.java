@@ -0,0 +1,154 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.model.ProblemStats;
+import com.compilerai.backend.model.Submission;
+import com.compilerai.backend.model.TestResult;
+import com.compilerai.backend.repository.ProblemStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps {@link ProblemStats} current with atomic updates per judged submission.
+ * The failure histogram belongs to one test suite: when the problem's tests change,
+ * the first submission against the new suite starts a fresh histogram.
+ *
+ * Each stats document has a generation, which {@link ProblemStatsRebuild} bumps
+ * when it swaps in a fresh document. A submission is claimed for a generation
+ * (Submission.statsGeneration) before it is counted, and updates only apply to
+ * the generation they claimed for, so a submission judged during a rebuild is
+ * counted exactly once, either here or by the rebuild.
+ */
+@Service
+public class ProblemStatsService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ProblemStatsRepository problemStatsRepository;
+
+    public void recordSubmission(Submission submission) {
+        Query byProblem = new Query(Criteria.where("_id").is(submission.getProblemId()));
+        ProblemStats stats = mongoTemplate.findAndModify(byProblem, new Update().setOnInsert("generation", 0L),
+                FindAndModifyOptions.options().upsert(true).returnNew(true), ProblemStats.class);
+        long generation = stats.getGeneration();
+        if (!claim(submission.getId(), generation)) {
+            return;
+        }
+
+        boolean accepted = Boolean.TRUE.equals(submission.getIsCorrect());
+        String language = UserStatsService.key(submission.getLanguage());
+        Update counters = new Update()
+                .inc("attempts", 1)
+                .inc("accepts", accepted ? 1 : 0)
+                .inc("attemptsByLanguage." + language, 1)
+                .inc("acceptsByLanguage." + language, accepted ? 1 : 0)
+                .set("updatedAt", LocalDateTime.now());
+        // A rebuild swapped in a new generation since the claim; its catch-up pass counts the submission
+        if (mongoTemplate.updateFirst(inGeneration(submission.getProblemId(), generation), counters, ProblemStats.class)
+                .getMatchedCount() == 0) {
+            return;
+        }
+
+        String suiteHash = suiteHash(submission.getTestResults());
+        if (suiteHash == null) {
+            return;
+        }
+
+        // First submission against this suite: start a fresh histogram, then count into it like the others
+        Query otherSuite = inGeneration(submission.getProblemId(), generation)
+                .addCriteria(Criteria.where("suiteHash").ne(suiteHash));
+        mongoTemplate.updateFirst(otherSuite, new Update().set("suiteHash", suiteHash).set("failuresByTest", new HashMap<>()),
+                ProblemStats.class);
+
+        Map<String, Long> failures = failures(submission.getTestResults(), suiteHash);
+        if (!failures.isEmpty()) {
+            Update histogram = new Update();
+            failures.forEach((index, count) -> histogram.inc("failuresByTest." + index, count));
+            Query sameSuite = inGeneration(submission.getProblemId(), generation)
+                    .addCriteria(Criteria.where("suiteHash").is(suiteHash));
+            mongoTemplate.updateFirst(sameSuite, histogram, ProblemStats.class);
+        }
+    }
+
+    public ProblemStats getStats(String problemId) {
+        return problemStatsRepository.findById(problemId).orElseGet(() -> {
+            ProblemStats empty = new ProblemStats();
+            empty.setProblemId(problemId);
+            return empty;
+        });
+    }
+
+    /**
+     * Adds one submission to an in-memory stats document (used by the rebuild job).
+     * Results from suites other than the given one are left out of the histogram.
+     */
+    static void accumulate(ProblemStats stats, Submission submission, String currentSuiteHash) {
+        boolean accepted = Boolean.TRUE.equals(submission.getIsCorrect());
+        String language = UserStatsService.key(submission.getLanguage());
+
+        stats.setAttempts(stats.getAttempts() + 1);
+        stats.getAttemptsByLanguage().merge(language, 1L, Long::sum);
+        if (accepted) {
+            stats.setAccepts(stats.getAccepts() + 1);
+            stats.getAcceptsByLanguage().merge(language, 1L, Long::sum);
+        }
+
+        String suiteHash = suiteHash(submission.getTestResults());
+        // Results stored before suite hashes existed are counted by position
+        if (suiteHash == null || suiteHash.equals(currentSuiteHash)) {
+            failures(submission.getTestResults(), suiteHash).forEach((index, count) ->
+                    stats.getFailuresByTest().merge(index, count, Long::sum));
+        }
+    }
+
+    /**
+     * Marks the submission as counted in the generation; false if it already was.
+     */
+    boolean claim(String submissionId, long generation) {
+        Query unclaimed = new Query(Criteria.where("_id").is(submissionId).and("statsGeneration").ne(generation));
+        return mongoTemplate.updateFirst(unclaimed, new Update().set("statsGeneration", generation), Submission.class)
+                .getModifiedCount() > 0;
+    }
+
+    static Query inGeneration(String problemId, long generation) {
+        return new Query(Criteria.where("_id").is(problemId).and("generation").is(generation));
+    }
+
+    private static String suiteHash(List<TestResult> testResults) {
+        if (testResults == null) {
+            return null;
+        }
+        for (TestResult result : testResults) {
+            if (result.getSuiteHash() != null) {
+                return result.getSuiteHash();
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, Long> failures(List<TestResult> testResults, String suiteHash) {
+        Map<String, Long> failures = new HashMap<>();
+        if (testResults == null) {
+            return failures;
+        }
+        for (int i = 0; i < testResults.size(); i++) {
+            TestResult result = testResults.get(i);
+            if (Boolean.FALSE.equals(result.getIsCorrect()) && !Boolean.TRUE.equals(result.getSkipped())) {
+                int index = suiteHash != null && result.getTestIndex() != null ? result.getTestIndex() : i;
+                failures.merge(String.valueOf(index), 1L, Long::sum);
+            }
+        }
+        return failures;
+    }
+}
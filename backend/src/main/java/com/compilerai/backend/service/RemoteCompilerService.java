@@ -0,0 +1,108 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.config.RequestIdFilter;
+import com.compilerai.backend.dto.BatchCompilerRequest;
+import com.compilerai.backend.dto.BatchCompilerResponse;
+import com.compilerai.backend.dto.CompilerRequest;
+import com.compilerai.backend.dto.CompilerResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs code on the standalone compiler service over HTTP (compiler.engine=remote).
+ * Each call carries the current request id in X-Request-Id and is timed as
+ * compiler.request, tagged by endpoint, language and outcome.
+ */
+@Service
+@ConditionalOnProperty(name = "compiler.engine", havingValue = "remote", matchIfMissing = true)
+public class RemoteCompilerService implements CompilerService {
+
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+    private final MetricTags metricTags;
+
+    public RemoteCompilerService(@Value("${compiler.service.url}") String compilerUrl,
+                                 @Value("${compiler.service.max-response-bytes:67108864}") int maxResponseBytes,
+                                 MeterRegistry meterRegistry,
+                                 MetricTags metricTags) {
+        this.webClient = WebClient.builder()
+                .baseUrl(compilerUrl)
+                // Batch responses carry every test's output in one body
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxResponseBytes))
+                .build();
+        this.meterRegistry = meterRegistry;
+        this.metricTags = metricTags;
+    }
+
+    @Override
+    public CompilerResponse runCode(String language, String code, String input) {
+        CompilerRequest request = new CompilerRequest(language, code, input);
+        long start = System.nanoTime();
+        
+        try {
+            CompilerResponse response = webClient.post()
+                    .uri("/run")
+                    .headers(RemoteCompilerService::propagateRequestId)
+                    .bodyValue(request)
+                    .retrieve()
+                    .bodyToMono(CompilerResponse.class)
+                    .block();
+            record("/run", language, "success", start);
+            return response;
+        } catch (Exception e) {
+            record("/run", language, "error", start);
+            CompilerResponse errorResponse = new CompilerResponse();
+            errorResponse.setError("Failed to execute code: " + e.getMessage());
+            return errorResponse;
+        }
+    }
+
+    @Override
+    public BatchCompilerResponse runBatch(String language, String code, List<String> inputs) {
+        BatchCompilerRequest request = new BatchCompilerRequest(language, code, inputs);
+        long start = System.nanoTime();
+
+        try {
+            BatchCompilerResponse response = webClient.post()
+                    .uri("/run/batch")
+                    .headers(RemoteCompilerService::propagateRequestId)
+                    .bodyValue(request)
+                    .retrieve()
+                    .bodyToMono(BatchCompilerResponse.class)
+                    .block();
+            record("/run/batch", language, "success", start);
+            return response != null ? response : new BatchCompilerResponse();
+        } catch (Exception e) {
+            record("/run/batch", language, "error", start);
+            BatchCompilerResponse errorResponse = new BatchCompilerResponse();
+            errorResponse.setError("Failed to execute code: " + e.getMessage());
+            return errorResponse;
+        }
+    }
+
+    private static void propagateRequestId(HttpHeaders headers) {
+        String requestId = MDC.get(RequestIdFilter.MDC_KEY);
+        if (requestId != null) {
+            headers.set(RequestIdFilter.HEADER, requestId);
+        }
+    }
+
+    private void record(String endpoint, String language, String outcome, long start) {
+        Timer.builder("compiler.request")
+                .description("Round trip to the compiler service")
+                .tag("endpoint", endpoint)
+                .tag("language", metricTags.language(language))
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
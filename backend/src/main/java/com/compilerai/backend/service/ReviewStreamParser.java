@@ -0,0 +1,100 @@
+package com.compilerai.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a streamed review into its "Review:" and "Hints:" sections as chunks
+ * arrive, so each piece can be forwarded as soon as it is known to belong to a
+ * section. Text that could be the start of a marker split across two chunks is
+ * held back until the next chunk (or {@link #finish()}) settles it. The complete
+ * text is kept, so the final split matches the non-streaming endpoint.
+ */
+class ReviewStreamParser {
+
+    static final String REVIEW = "review";
+    static final String HINTS = "hints";
+
+    private static final String REVIEW_MARKER = "Review:";
+    private static final String HINTS_MARKER = "Hints:";
+
+    private final StringBuilder full = new StringBuilder();
+    private final StringBuilder pending = new StringBuilder();
+    private String section;
+
+    /**
+     * @param hintsOnly whether the prompt asked for hints only, in which case all
+     *                  text belongs to the hints section
+     */
+    ReviewStreamParser(boolean hintsOnly) {
+        this.section = hintsOnly ? HINTS : REVIEW;
+    }
+
+    record Delta(String section, String text) {
+    }
+
+    /**
+     * Feeds the next chunk and returns the text that can be emitted now.
+     */
+    List<Delta> accept(String chunk) {
+        full.append(chunk);
+        pending.append(chunk);
+        return drain(false);
+    }
+
+    /**
+     * Flushes any held-back text at the end of the stream.
+     */
+    List<Delta> finish() {
+        return drain(true);
+    }
+
+    String text() {
+        return full.toString();
+    }
+
+    private List<Delta> drain(boolean last) {
+        List<Delta> deltas = new ArrayList<>();
+        if (REVIEW.equals(section)) {
+            int hints = pending.indexOf(HINTS_MARKER);
+            if (hints >= 0) {
+                emit(deltas, REVIEW, stripReviewMarkers(pending.substring(0, hints)));
+                pending.delete(0, hints + HINTS_MARKER.length());
+                section = HINTS;
+            }
+        }
+
+        int keep = last ? 0 : heldBack();
+        String ready = pending.substring(0, pending.length() - keep);
+        pending.delete(0, ready.length());
+        emit(deltas, section, REVIEW.equals(section) ? stripReviewMarkers(ready) : ready);
+        return deltas;
+    }
+
+    // Length of the longest suffix of the pending text that starts a marker
+    private int heldBack() {
+        if (!REVIEW.equals(section)) {
+            return 0;
+        }
+        int longest = 0;
+        for (String marker : new String[]{REVIEW_MARKER, HINTS_MARKER}) {
+            for (int length = Math.min(marker.length() - 1, pending.length()); length > longest; length--) {
+                if (marker.startsWith(pending.substring(pending.length() - length))) {
+                    longest = length;
+                    break;
+                }
+            }
+        }
+        return longest;
+    }
+
+    private static String stripReviewMarkers(String text) {
+        return text.replace(REVIEW_MARKER, "");
+    }
+
+    private static void emit(List<Delta> deltas, String section, String text) {
+        if (!text.isEmpty()) {
+            deltas.add(new Delta(section, text));
+        }
+    }
+}
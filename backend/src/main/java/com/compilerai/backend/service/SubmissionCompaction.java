@@ -0,0 +1,97 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.model.Problem;
+import com.compilerai.backend.model.Submission;
+import com.compilerai.backend.model.TestResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * One-off migration that rewrites finished submissions in the compact form of
+ * {@link SubmissionStore}. Test results whose input and expected output still
+ * match the problem's test suite at the same position are turned into references;
+ * results that no longer match keep their data. Runs at startup when
+ * migration.submissions.enabled=true.
+ */
+@Component
+public class SubmissionCompaction {
+
+    private static final Logger log = LoggerFactory.getLogger(SubmissionCompaction.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SubmissionStore submissionStore;
+
+    @Autowired
+    private ProblemCache problemCache;
+
+    @Autowired
+    private TestDataStore testDataStore;
+
+    @Value("${migration.submissions.enabled:false}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+
+        // Queued and running submissions are left alone; a judge worker may be saving them
+        Query uncompacted = new Query(new Criteria().andOperator(
+                Criteria.where("storageVersion").ne(SubmissionStore.STORAGE_VERSION),
+                new Criteria().orOperator(
+                        Criteria.where("status").in(Submission.STATUS_COMPLETED, Submission.STATUS_FAILED),
+                        Criteria.where("status").exists(false)
+                )
+        ));
+
+        Map<String, Optional<TestSuite>> suites = new HashMap<>();
+        int compacted = 0;
+        try (Stream<Submission> submissions = mongoTemplate.stream(uncompacted, Submission.class)) {
+            for (Submission submission : (Iterable<Submission>) submissions::iterator) {
+                try {
+                    TestSuite suite = suites.computeIfAbsent(submission.getProblemId(), problemId ->
+                            problemCache.findById(problemId).map(testDataStore::suiteFor)).orElse(null);
+                    if (suite != null) {
+                        linkToSuite(submission.getTestResults(), suite);
+                    }
+                    submissionStore.save(submission);
+                    compacted++;
+                } catch (Exception e) {
+                    log.warn("Could not compact submission {}: {}", submission.getId(), e.getMessage());
+                }
+            }
+        }
+        log.info("Compacted {} submissions", compacted);
+    }
+
+    private void linkToSuite(List<TestResult> testResults, TestSuite suite) {
+        if (testResults == null) {
+            return;
+        }
+        for (int i = 0; i < testResults.size(); i++) {
+            TestResult result = testResults.get(i);
+            if (result.getSuiteHash() == null && suite.matches(i, result.getInput(), result.getExpectedOutput())) {
+                result.setTestIndex(i);
+                result.setSuiteHash(suite.hash());
+            }
+        }
+    }
+}
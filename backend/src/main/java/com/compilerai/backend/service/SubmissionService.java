@@ -1,89 +1,481 @@
 package com.compilerai.backend.service;
 
 import com.compilerai.backend.dto.CompilerResponse;
+import com.compilerai.backend.dto.SubmissionPage;
 import com.compilerai.backend.dto.SubmissionRequest;
+import com.compilerai.backend.dto.SubmissionSummary;
 import com.compilerai.backend.model.Problem;
 import com.compilerai.backend.model.Submission;
 import com.compilerai.backend.model.TestCase;
 import com.compilerai.backend.model.TestResult;
-import com.compilerai.backend.repository.ProblemRepository;
 import com.compilerai.backend.repository.SubmissionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class SubmissionService {
 
+    private static final Logger log = LoggerFactory.getLogger(SubmissionService.class);
+
     @Autowired
     private SubmissionRepository submissionRepository;
 
     @Autowired
-    private ProblemRepository problemRepository;
+    private TestCaseRunner testCaseRunner;
+
+    @Value("${judge.parallel.enabled:false}")
+    private boolean parallelEnabled;
+
+    @Value("${judge.parallel.default-parallelism:4}")
+    private int defaultParallelism;
+
+    @Autowired
+    private TestCaseOrdering testCaseOrdering;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MetricTags metricTags;
+
+    @Value("${judge.fail-fast.enabled:false}")
+    private boolean failFastByDefault;
+
+    @Value("${judge.fail-fast.chunk-size:4}")
+    private int failFastChunkSize;
+
+    @Value("${judge.stream.chunk-size:1}")
+    private int streamChunkSize;
+
+    @Autowired
+    private OutputComparator outputComparator;
+
+    @Value("${judge.output.max-bytes:8388608}")
+    private int maxOutputBytes;
 
     @Autowired
-    private CompilerService compilerService;
+    private TestDataStore testDataStore;
+
+    @Autowired
+    private ProblemCache problemCache;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private ProblemStatsService problemStatsService;
+
+    @Autowired
+    private SubmissionStore submissionStore;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${submissions.page.default-limit:20}")
+    private int historyDefaultLimit;
+
+    @Value("${submissions.page.max-limit:100}")
+    private int historyMaxLimit;
+
+    @Value("${judge.batch-size:32}")
+    private int batchSize;
 
     public Submission submitCode(SubmissionRequest request, String userId) {
-        Problem problem = problemRepository.findById(request.getProblemId())
-                .orElseThrow(() -> new RuntimeException("Problem not found"));
+        Problem problem = findJudgeableProblem(request.getProblemId());
 
-        if (problem.getTestCases() == null || problem.getTestCases().isEmpty()) {
-            throw new RuntimeException("No test cases found for this problem");
-        }
+        Submission submission = newSubmission(request, userId);
+        JudgeTimings timings = new JudgeTimings();
+        problem = judgeWithReload(submission, problem, JudgeListener.NONE, batchSize, timings);
 
-        List<TestResult> testResults = new ArrayList<>();
-        boolean allPassed = true;
+        return saveJudged(submission, problem, timings);
+    }
 
-        for (TestCase testCase : problem.getTestCases()) {
-            CompilerResponse response = compilerService.runCode(
-                    request.getLanguage(),
-                    request.getCode(),
-                    testCase.getInput()
-            );
+    /**
+     * Judges like {@link #submitCode} but runs the tests in small chunks and
+     * reports every result to the listener as soon as its chunk finishes.
+     */
+    public Submission submitCode(SubmissionRequest request, String userId, JudgeListener listener) {
+        Problem problem = findJudgeableProblem(request.getProblemId());
 
-            String actualOutput = response.getOutput() != null ? response.getOutput().trim() : "";
-            String expectedOutput = testCase.getExpectedOutput().trim();
-            boolean passed = actualOutput.equals(expectedOutput);
+        Submission submission = newSubmission(request, userId);
+        JudgeTimings timings = new JudgeTimings();
+        problem = judgeWithReload(submission, problem, listener, streamChunkSize, timings);
 
-            if (!passed) {
-                allPassed = false;
+        return saveJudged(submission, problem, timings);
+    }
+
+    /**
+     * Persists the submission in the PENDING state without judging it. A judge
+     * worker picks it up from the queue (see {@link JudgeQueue}).
+     */
+    public Submission createPendingSubmission(SubmissionRequest request, String userId) {
+        findJudgeableProblem(request.getProblemId());
+
+        Submission submission = newSubmission(request, userId);
+        submission.setStatus(Submission.STATUS_PENDING);
+        submission.setQueuedAt(LocalDateTime.now());
+
+        return submissionStore.save(submission);
+    }
+
+    /**
+     * Judges a submission claimed from the queue and stores the outcome.
+     */
+    public Submission judgeQueuedSubmission(Submission submission) {
+        submissionStore.expand(submission);
+        Problem problem = null;
+        JudgeTimings timings = new JudgeTimings();
+        try {
+            problem = findJudgeableProblem(submission.getProblemId());
+            problem = judgeWithReload(submission, problem, JudgeListener.NONE, batchSize, timings);
+        } catch (Exception e) {
+            submission.setStatus(Submission.STATUS_FAILED);
+            submission.setError(e.getMessage());
+            submission.setCompletedAt(LocalDateTime.now());
+        }
+        return saveJudged(submission, problem, timings);
+    }
+
+    /**
+     * Saves a judged submission and counts it in the user's and the problem's stats,
+     * then records how long each judging stage took.
+     */
+    private Submission saveJudged(Submission submission, Problem problem, JudgeTimings timings) {
+        long persistStart = System.nanoTime();
+        Submission saved = submissionStore.save(submission);
+        if (Submission.STATUS_COMPLETED.equals(saved.getStatus())) {
+            try {
+                userStatsService.recordSubmission(saved, problem);
+                problemStatsService.recordSubmission(saved);
+            } catch (Exception e) {
+                // The submission is stored; the stats rebuild jobs can repair the counters
+                log.warn("Could not update stats for submission {}: {}", saved.getId(), e.getMessage());
             }
+        }
+        recordTimings(saved, timings, System.nanoTime() - persistStart);
+        return saved;
+    }
 
-            TestResult testResult = new TestResult(
-                    testCase.getInput(),
-                    testCase.getExpectedOutput(),
-                    actualOutput,
-                    passed
-            );
-            testResults.add(testResult);
+    /**
+     * judge.stage timers (load, compile, run, execute, compare, persist) and the
+     * judge.submission total, tagged by language; both have histograms, so they
+     * leave out the problem. judge.problem repeats the total per problem without
+     * one. "execute" is the round trip to the engine, which includes its compile
+     * and run time.
+     */
+    private void recordTimings(Submission submission, JudgeTimings timings, long persistNanos) {
+        String language = metricTags.language(submission.getLanguage());
+
+        recordStage("load", timings.getLoadNanos(), language);
+        recordStage("execute", timings.getExecuteNanos(), language);
+        if (timings.isEngineReported()) {
+            recordStage("compile", TimeUnit.MILLISECONDS.toNanos(timings.getCompileMs()), language);
+            recordStage("run", TimeUnit.MILLISECONDS.toNanos(timings.getRunMs()), language);
         }
+        recordStage("compare", timings.getCompareNanos(), language);
+        recordStage("persist", persistNanos, language);
 
-        String verdict = allPassed ? "✅ Passed" : "❌ Failed";
+        String outcome = Submission.STATUS_COMPLETED.equals(submission.getStatus())
+                ? (Boolean.TRUE.equals(submission.getIsCorrect()) ? "passed" : "failed")
+                : "error";
+        long totalNanos = System.nanoTime() - timings.getStartedAt();
+        Timer.builder("judge.submission")
+                .description("Time to judge and store a submission")
+                .tag("language", language)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(totalNanos, TimeUnit.NANOSECONDS);
+        Timer.builder("judge.problem")
+                .description("Time to judge and store a submission, per problem")
+                .tag("problem", metricTags.problem(submission.getProblemId()))
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(totalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordStage(String stage, long nanos, String language) {
+        Timer.builder("judge.stage")
+                .description("Time spent in one stage of judging a submission")
+                .tag("stage", stage)
+                .tag("language", language)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Submission getSubmission(String id) {
+        return submissionRepository.findById(id)
+                .map(submissionStore::expand)
+                .orElseThrow(() -> new RuntimeException("Submission not found"));
+    }
+
+    private Problem findJudgeableProblem(String problemId) {
+        Problem problem = problemCache.findById(problemId)
+                .orElseThrow(() -> new RuntimeException("Problem not found"));
+
+        if (testDataStore.suiteFor(problem).size() == 0) {
+            throw new RuntimeException("No test cases found for this problem");
+        }
+        return problem;
+    }
 
+    private Submission newSubmission(SubmissionRequest request, String userId) {
         Submission submission = new Submission();
         submission.setProblemId(request.getProblemId());
         submission.setUserId(userId);
         submission.setCode(request.getCode());
         submission.setLanguage(request.getLanguage());
+        submission.setFailFast(request.getFailFast() != null ? request.getFailFast() : failFastByDefault);
+        return submission;
+    }
+
+    /**
+     * Judges against the given problem. If its test data was replaced and swept while
+     * the problem sat in a cache, reloads the problem once and judges again; returns
+     * the problem the submission was judged against.
+     */
+    private Problem judgeWithReload(Submission submission, Problem problem, JudgeListener listener, int chunkSize, JudgeTimings timings) {
+        try {
+            judge(submission, problem, listener, chunkSize, timings);
+            return problem;
+        } catch (TestDataStore.TestDataMissingException e) {
+            log.info("Reloading problem {}: {}", problem.getId(), e.getMessage());
+            problemCache.invalidate(problem.getId());
+            Problem reloaded = findJudgeableProblem(problem.getId());
+            judge(submission, reloaded, listener, chunkSize, timings);
+            return reloaded;
+        }
+    }
+
+    private void judge(Submission submission, Problem problem, JudgeListener listener, int chunkSize, JudgeTimings timings) {
+        TestSuite suite = testDataStore.suiteFor(problem);
+        TestResult[] results = new TestResult[suite.size()];
+        boolean failFast = Boolean.TRUE.equals(submission.getFailFast());
+
+        List<Integer> order;
+        if (failFast) {
+            order = testCaseOrdering.order(problem.getId(), suite);
+            chunkSize = Math.min(chunkSize, failFastChunkSize);
+        } else {
+            order = new ArrayList<>(suite.size());
+            for (int i = 0; i < suite.size(); i++) {
+                order.add(i);
+            }
+        }
+
+        runInChunks(submission, problem, suite, order, Math.max(1, chunkSize), failFast, results, listener, timings);
+
+        List<TestResult> testResults = new ArrayList<>();
+        boolean allPassed = true;
+        int skipped = 0;
+
+        for (int i = 0; i < suite.size(); i++) {
+            TestResult testResult = results[i];
+            if (testResult == null) {
+                // Skipped tests are never loaded from the test data store
+                testResult = new TestResult(null, null, null, false, true, i, suite.hash(), false);
+                listener.onTestResult(i, testResult);
+                skipped++;
+            }
+            if (!testResult.getIsCorrect()) {
+                allPassed = false;
+            }
+            testResults.add(testResult);
+        }
+
+        if (skipped > 0) {
+            meterRegistry.counter("judge.tests.skipped").increment(skipped);
+        }
+
+        String verdict = allPassed ? "✅ Passed" : "❌ Failed";
+
         submission.setIsCorrect(allPassed);
         submission.setVerdict(verdict);
         submission.setTestResults(testResults);
+        submission.setStatus(Submission.STATUS_COMPLETED);
+        submission.setCompletedAt(LocalDateTime.now());
 
-        // Store last test case details for backward compatibility
+        // Last test case details for backward compatibility (not stored; SubmissionStore derives them on read)
         if (!testResults.isEmpty()) {
             TestResult lastResult = testResults.get(testResults.size() - 1);
             submission.setInput(lastResult.getInput());
             submission.setExpectedOutput(lastResult.getExpectedOutput());
             submission.setActualOutput(lastResult.getActualOutput());
         }
+    }
+
+    /**
+     * Runs the tests in the given order, a chunk at a time, reporting each result
+     * as its chunk completes. Test data is loaded one chunk at a time, so only a
+     * chunk's inputs and expected outputs are held in memory. In fail-fast mode it
+     * stops after the first failure; tests that never ran are left null in results.
+     */
+    private void runInChunks(Submission submission, Problem problem, TestSuite suite, List<Integer> order,
+                             int chunkSize, boolean failFast, TestResult[] results, JudgeListener listener,
+                             JudgeTimings timings) {
+        boolean failed = false;
+
+        for (int from = 0; from < order.size() && !failed; from += chunkSize) {
+            List<Integer> chunk = order.subList(from, Math.min(from + chunkSize, order.size()));
+            long loadStart = System.nanoTime();
+            List<TestCase> chunkCases = new ArrayList<>(chunk.size());
+            for (int index : chunk) {
+                chunkCases.add(suite.get(index));
+            }
+            timings.addLoad(System.nanoTime() - loadStart);
+
+            long executeStart = System.nanoTime();
+            List<CompilerResponse> responses = testCaseRunner.run(
+                    submission.getLanguage(),
+                    submission.getCode(),
+                    chunkCases,
+                    parallelismFor(problem),
+                    timings
+            );
+            timings.addExecute(System.nanoTime() - executeStart);
+
+            for (int k = 0; k < chunk.size() && !failed; k++) {
+                long compareStart = System.nanoTime();
+                TestResult testResult = evaluate(problem, suite, chunk.get(k), chunkCases.get(k), responses.get(k));
+                timings.addCompare(System.nanoTime() - compareStart);
+                results[chunk.get(k)] = testResult;
+                listener.onTestResult(chunk.get(k), testResult);
+                failed = failFast && !testResult.getIsCorrect();
+            }
+        }
+    }
+
+    private TestResult evaluate(Problem problem, TestSuite suite, int index, TestCase testCase, CompilerResponse response) {
+        String actualOutput = response.getOutput() != null ? response.getOutput() : "";
+        boolean passed;
+
+        // Engines already enforce the cap in bytes; string length is a cheap upper-bound check
+        if (actualOutput.length() > maxOutputBytes) {
+            actualOutput = "Output limit exceeded";
+            passed = false;
+        } else {
+            passed = outputComparator.matches(
+                    actualOutput,
+                    testCase.getExpectedOutput(),
+                    problem.getChecker(),
+                    problem.getFloatTolerance()
+            );
+        }
+
+        return new TestResult(
+                testCase.getInput(),
+                testCase.getExpectedOutput(),
+                actualOutput,
+                passed,
+                false,
+                index,
+                suite.hash(),
+                false
+        );
+    }
 
-        return submissionRepository.save(submission);
+    private int parallelismFor(Problem problem) {
+        if (!parallelEnabled) {
+            return 1;
+        }
+        return problem.getParallelism() != null ? problem.getParallelism() : defaultParallelism;
     }
 
-    public List<Submission> getUserSubmissions(String userId) {
-        return submissionRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    /**
+     * One page of a user's submissions, newest first, optionally for one problem
+     * and/or one outcome ("passed" or "failed"). Keyset paging on (createdAt, id)
+     * follows the (userId, createdAt) indexes; the cursor is opaque to clients.
+     */
+    public SubmissionPage getSubmissionHistory(String userId, String cursor, Integer limit,
+                                               String problemId, String verdict) {
+        int pageSize = limit == null || limit <= 0 ? historyDefaultLimit : Math.min(limit, historyMaxLimit);
+
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (problemId != null && !problemId.isBlank()) {
+            criteria = criteria.and("problemId").is(problemId);
+        }
+        if (verdict != null && !verdict.isBlank()) {
+            if (!"passed".equalsIgnoreCase(verdict) && !"failed".equalsIgnoreCase(verdict)) {
+                throw new IllegalArgumentException("verdict must be passed or failed");
+            }
+            criteria = criteria.and("isCorrect").is("passed".equalsIgnoreCase(verdict));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            criteria = criteria.orOperator(
+                    Criteria.where("createdAt").lt(after.createdAt()),
+                    Criteria.where("createdAt").is(after.createdAt()).and("_id").lt(new ObjectId(after.id()))
+            );
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+                .limit(pageSize + 1);
+        query.fields().include("problemId", "language", "verdict", "isCorrect", "status", "createdAt");
+
+        List<Submission> submissions = mongoTemplate.find(query, Submission.class);
+        String nextCursor = null;
+        if (submissions.size() > pageSize) {
+            submissions = submissions.subList(0, pageSize);
+            Submission last = submissions.get(pageSize - 1);
+            nextCursor = new HistoryCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        List<SubmissionSummary> summaries = new ArrayList<>(submissions.size());
+        for (Submission submission : submissions) {
+            String problemTitle = problemCache.findById(submission.getProblemId())
+                    .map(Problem::getTitle)
+                    .orElse(null);
+            summaries.add(new SubmissionSummary(
+                    submission.getId(),
+                    submission.getProblemId(),
+                    problemTitle,
+                    submission.getLanguage(),
+                    submission.getVerdict(),
+                    submission.getIsCorrect(),
+                    submission.getStatus(),
+                    submission.getCreatedAt()
+            ));
+        }
+        return new SubmissionPage(summaries, nextCursor);
+    }
+
+    private record HistoryCursor(LocalDateTime createdAt, String id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static HistoryCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                String id = raw.substring(separator + 1);
+                if (separator < 0 || !ObjectId.isValid(id)) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return new HistoryCursor(LocalDateTime.parse(raw.substring(0, separator)), id);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
     }
 }
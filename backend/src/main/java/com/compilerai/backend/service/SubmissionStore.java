@@ -0,0 +1,222 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.model.Problem;
+import com.compilerai.backend.model.Submission;
+import com.compilerai.backend.model.TestCase;
+import com.compilerai.backend.model.TestResult;
+import com.compilerai.backend.repository.SubmissionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores submissions in compact form and restores the full API shape on read.
+ * At rest, test results refer to their test case by index and suite hash instead
+ * of copying input and expected output, output identical to the expected output
+ * is dropped, other output keeps a prefix, and the code is gzipped. The last-case fields are
+ * derived from the last test result.
+ */
+@Component
+public class SubmissionStore {
+
+    /** Stamped on every saved submission; SubmissionCompaction rewrites the others. */
+    static final int STORAGE_VERSION = 1;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ProblemCache problemCache;
+
+    @Autowired
+    private TestDataStore testDataStore;
+
+    @Value("${submissions.storage.max-output-chars:1024}")
+    private int maxOutputChars;
+
+    @Value("${submissions.storage.compress-code:true}")
+    private boolean compressCode;
+
+    /**
+     * Saves the compact form. The submission passed in keeps (and is returned
+     * with) its full code and test results. A submission claimed by a judge worker
+     * is only written while the stored claim token still matches; otherwise
+     * {@link ClaimLostException} is thrown and nothing is written.
+     */
+    public Submission save(Submission submission) {
+        String code = submission.getCode();
+        List<TestResult> testResults = submission.getTestResults();
+        String input = submission.getInput();
+        String expectedOutput = submission.getExpectedOutput();
+        String actualOutput = submission.getActualOutput();
+
+        compact(submission);
+        submission.setStorageVersion(STORAGE_VERSION);
+        try {
+            if (submission.getClaimToken() != null && submission.getId() != null) {
+                Query claimed = new Query(Criteria.where("_id").is(submission.getId())
+                        .and("claimToken").is(submission.getClaimToken()));
+                if (mongoTemplate.findAndReplace(claimed, submission) == null) {
+                    throw new ClaimLostException(submission.getId());
+                }
+            } else {
+                submissionRepository.save(submission);
+            }
+        } finally {
+            submission.setCode(code);
+            submission.setCompressedCode(null);
+            submission.setTestResults(testResults);
+            submission.setInput(input);
+            submission.setExpectedOutput(expectedOutput);
+            submission.setActualOutput(actualOutput);
+        }
+        return submission;
+    }
+
+    /**
+     * Fills in what the compact form left out: the code, and the input, expected
+     * output and (for passing tests) actual output of every test result that still
+     * matches the problem's current test suite. A passing output is only dropped
+     * when it equals the expected output, so the expected output restores it.
+     */
+    public Submission expand(Submission submission) {
+        if (submission.getCompressedCode() != null) {
+            submission.setCode(gunzip(submission.getCompressedCode()));
+            submission.setCompressedCode(null);
+        }
+
+        List<TestResult> testResults = submission.getTestResults();
+        if (testResults == null || testResults.isEmpty()) {
+            return submission;
+        }
+
+        TestSuite suite = null;
+        if (testResults.stream().anyMatch(result -> result.getSuiteHash() != null)) {
+            Problem problem = problemCache.findById(submission.getProblemId()).orElse(null);
+            suite = problem != null ? testDataStore.suiteFor(problem) : null;
+        }
+        if (suite != null) {
+            for (TestResult result : testResults) {
+                if (result.getTestIndex() == null || !suite.hash().equals(result.getSuiteHash())
+                        || Boolean.TRUE.equals(result.getSkipped()) || result.getInput() != null) {
+                    continue;
+                }
+                TestCase testCase = suite.get(result.getTestIndex());
+                result.setInput(testCase.getInput());
+                result.setExpectedOutput(testCase.getExpectedOutput());
+                if (Boolean.TRUE.equals(result.getIsCorrect()) && result.getActualOutput() == null) {
+                    result.setActualOutput(testCase.getExpectedOutput());
+                }
+            }
+        }
+
+        if (submission.getInput() == null) {
+            TestResult lastResult = testResults.get(testResults.size() - 1);
+            submission.setInput(lastResult.getInput());
+            submission.setExpectedOutput(lastResult.getExpectedOutput());
+            submission.setActualOutput(lastResult.getActualOutput());
+        }
+        return submission;
+    }
+
+    private void compact(Submission submission) {
+        String code = submission.getCode();
+        if (compressCode && code != null) {
+            byte[] compressed = gzip(code);
+            // Very short programs grow under gzip; keep those as text
+            if (compressed.length < code.getBytes(StandardCharsets.UTF_8).length) {
+                submission.setCompressedCode(compressed);
+                submission.setCode(null);
+            }
+        }
+
+        List<TestResult> testResults = submission.getTestResults();
+        if (testResults == null || testResults.isEmpty()) {
+            return;
+        }
+
+        List<TestResult> compacted = new ArrayList<>(testResults.size());
+        for (TestResult result : testResults) {
+            compacted.add(compact(result));
+        }
+        submission.setTestResults(compacted);
+
+        // Derived from the last test result on read
+        submission.setInput(null);
+        submission.setExpectedOutput(null);
+        submission.setActualOutput(null);
+    }
+
+    private TestResult compact(TestResult result) {
+        TestResult stored = new TestResult(
+                result.getInput(),
+                result.getExpectedOutput(),
+                result.getActualOutput(),
+                result.getIsCorrect(),
+                result.getSkipped(),
+                result.getTestIndex(),
+                result.getSuiteHash(),
+                result.getOutputTruncated()
+        );
+        if (stored.getTestIndex() != null && stored.getSuiteHash() != null) {
+            // Passing output is only worth keeping when a lenient checker accepted a difference
+            if (Boolean.TRUE.equals(stored.getIsCorrect())
+                    && Objects.equals(stored.getActualOutput(), stored.getExpectedOutput())) {
+                stored.setActualOutput(null);
+            }
+            stored.setInput(null);
+            stored.setExpectedOutput(null);
+        }
+        String actualOutput = stored.getActualOutput();
+        if (actualOutput != null && actualOutput.length() > maxOutputChars) {
+            stored.setActualOutput(actualOutput.substring(0, maxOutputChars));
+            stored.setOutputTruncated(true);
+        }
+        return stored;
+    }
+
+    private static byte[] gzip(String text) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compress code: " + e.getMessage());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String gunzip(byte[] compressed) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to decompress code: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Another judge worker reclaimed the submission after this one's lease lapsed.
+     */
+    public static class ClaimLostException extends RuntimeException {
+        public ClaimLostException(String submissionId) {
+            super("Submission " + submissionId + " was claimed by another worker");
+        }
+    }
+}
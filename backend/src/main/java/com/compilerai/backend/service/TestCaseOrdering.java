@@ -0,0 +1,74 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.model.ProblemStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orders a problem's test cases for fail-fast judging: the tests that past
+ * submissions failed most often run first, and among equally failing tests the
+ * cheapest (smallest input plus expected output, taken from the stored sizes)
+ * run first. Failure counts come from the problem's failure histogram in
+ * {@link ProblemStats} and are cached per problem.
+ */
+@Component
+public class TestCaseOrdering {
+
+    @Autowired
+    private ProblemStatsService problemStatsService;
+
+    @Value("${judge.fail-fast.stats-ttl-ms:600000}")
+    private long statsTtlMs;
+
+    private final Map<String, CachedFailures> failuresByProblem = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the indexes of the problem's test cases in the order they should run.
+     */
+    public List<Integer> order(String problemId, TestSuite suite) {
+        Map<Integer, Long> failures = failureCounts(problemId, suite.hash());
+
+        List<Integer> order = new ArrayList<>(suite.size());
+        for (int i = 0; i < suite.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator
+                .comparingLong((Integer i) -> failures.getOrDefault(i, 0L)).reversed()
+                .thenComparingLong(suite::cost)
+                .thenComparingInt(i -> i));
+        return order;
+    }
+
+    private Map<Integer, Long> failureCounts(String problemId, String suiteHash) {
+        long now = System.currentTimeMillis();
+        CachedFailures cached = failuresByProblem.get(problemId);
+        if (cached != null && cached.suiteHash.equals(suiteHash) && now - cached.loadedAt < statsTtlMs) {
+            return cached.counts;
+        }
+
+        Map<Integer, Long> counts = loadFailureCounts(problemId, suiteHash);
+        failuresByProblem.put(problemId, new CachedFailures(counts, suiteHash, now));
+        return counts;
+    }
+
+    private Map<Integer, Long> loadFailureCounts(String problemId, String suiteHash) {
+        ProblemStats stats = problemStatsService.getStats(problemId);
+        Map<Integer, Long> counts = new HashMap<>();
+        // A histogram from an older test suite says nothing about the current tests
+        if (suiteHash.equals(stats.getSuiteHash())) {
+            stats.getFailuresByTest().forEach((index, failures) -> counts.put(Integer.parseInt(index), failures));
+        }
+        return counts;
+    }
+
+    private record CachedFailures(Map<Integer, Long> counts, String suiteHash, long loadedAt) {
+    }
+}
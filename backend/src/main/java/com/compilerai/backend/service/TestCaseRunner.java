@@ -0,0 +1,154 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.dto.BatchCompilerResponse;
+import com.compilerai.backend.dto.CompilerResponse;
+import com.compilerai.backend.model.TestCase;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a problem's test cases against the compiler service. Test cases are split
+ * into contiguous chunks that are dispatched concurrently on a bounded pool, and
+ * every call to the compiler service holds a permit from a global semaphore so
+ * that concurrent submissions cannot flood it. Results always come back in the
+ * original test case order.
+ */
+@Component
+public class TestCaseRunner {
+
+    private final CompilerService compilerService;
+    private final ExecutorService executor;
+    private final Semaphore concurrencyLimit;
+
+    @Autowired
+    public TestCaseRunner(CompilerService compilerService,
+                          @Value("${judge.parallel.threads:8}") int threads,
+                          @Value("${judge.parallel.queue-capacity:256}") int queueCapacity,
+                          @Value("${judge.parallel.max-concurrency:8}") int maxConcurrency) {
+        this(compilerService, new ThreadPoolExecutor(
+                threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("judge-"),
+                // When the queue is full the submitting thread runs the chunk itself
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        ), maxConcurrency);
+    }
+
+    public TestCaseRunner(CompilerService compilerService, ExecutorService executor, int maxConcurrency) {
+        this.compilerService = compilerService;
+        this.executor = executor;
+        this.concurrencyLimit = new Semaphore(maxConcurrency, true);
+    }
+
+    /**
+     * Runs every test case and returns one response per test case, in order.
+     * A parallelism of 1 sends the whole suite in a single batch on the calling thread.
+     */
+    public List<CompilerResponse> run(String language, String code, List<TestCase> testCases, int parallelism) {
+        return run(language, code, testCases, parallelism, new JudgeTimings());
+    }
+
+    /**
+     * Like {@link #run(String, String, List, int)}, adding the compile and run time
+     * the engine reports for each batch to timings.
+     */
+    List<CompilerResponse> run(String language, String code, List<TestCase> testCases, int parallelism,
+                               JudgeTimings timings) {
+        List<String> inputs = new ArrayList<>(testCases.size());
+        for (TestCase testCase : testCases) {
+            inputs.add(testCase.getInput());
+        }
+
+        int chunks = Math.max(1, Math.min(parallelism, inputs.size()));
+        if (chunks == 1) {
+            return runChunk(language, code, inputs, timings);
+        }
+
+        int chunkSize = (inputs.size() + chunks - 1) / chunks;
+        List<CompletableFuture<List<CompilerResponse>>> futures = new ArrayList<>();
+        // Carry the request id over to the pool threads so compiler calls stay correlated
+        Map<String, String> logContext = MDC.getCopyOfContextMap();
+        for (int from = 0; from < inputs.size(); from += chunkSize) {
+            List<String> chunk = inputs.subList(from, Math.min(from + chunkSize, inputs.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                // With CallerRunsPolicy this may run on the submitting thread, so restore rather than clear
+                Map<String, String> previous = MDC.getCopyOfContextMap();
+                if (logContext != null) {
+                    MDC.setContextMap(logContext);
+                }
+                try {
+                    return runChunk(language, code, chunk, timings);
+                } finally {
+                    if (previous != null) {
+                        MDC.setContextMap(previous);
+                    } else {
+                        MDC.clear();
+                    }
+                }
+            }, executor));
+        }
+
+        List<CompilerResponse> responses = new ArrayList<>(inputs.size());
+        for (CompletableFuture<List<CompilerResponse>> future : futures) {
+            responses.addAll(future.join());
+        }
+        return responses;
+    }
+
+    private List<CompilerResponse> runChunk(String language, String code, List<String> inputs, JudgeTimings timings) {
+        BatchCompilerResponse batch;
+        try {
+            concurrencyLimit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batch = new BatchCompilerResponse();
+            batch.setError("Interrupted while waiting for the compiler service");
+            return unpack(batch, inputs.size());
+        }
+
+        try {
+            batch = compilerService.runBatch(language, code, inputs);
+        } finally {
+            concurrencyLimit.release();
+        }
+        timings.add(batch);
+        return unpack(batch, inputs.size());
+    }
+
+    private List<CompilerResponse> unpack(BatchCompilerResponse batch, int size) {
+        List<CompilerResponse> responses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            responses.add(resultAt(batch, i));
+        }
+        return responses;
+    }
+
+    private CompilerResponse resultAt(BatchCompilerResponse batch, int index) {
+        List<CompilerResponse> results = batch.getResults();
+        if (batch.getError() == null && results != null && index < results.size() && results.get(index) != null) {
+            return results.get(index);
+        }
+        CompilerResponse missing = new CompilerResponse();
+        missing.setError(batch.getError() != null ? batch.getError() : "No result returned for test case");
+        return missing;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,78 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.model.Problem;
+import com.compilerai.backend.model.TestCaseRef;
+import com.compilerai.backend.repository.ProblemRepository;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-off migration that moves test cases embedded in problem documents into
+ * GridFS. Runs at startup when migration.test-data.enabled=true; problems that
+ * were already migrated no longer match, so it is safe to leave on.
+ */
+@Component
+public class TestDataMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(TestDataMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ProblemRepository problemRepository;
+
+    @Autowired
+    private TestDataStore testDataStore;
+
+    @Autowired
+    private ProblemCache problemCache;
+
+    @Value("${migration.test-data.enabled:false}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+
+        // Raw filter on the stored field name; "testCases" is also the transient property on Problem
+        List<String> ids = new ArrayList<>();
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Problem.class))
+                .find(Filters.exists("testCases.0"))
+                .projection(Projections.include("_id"))
+                .forEach((Document doc) -> ids.add(doc.getObjectId("_id").toHexString()));
+
+        int migrated = 0;
+        for (String id : ids) {
+            try {
+                Problem problem = problemRepository.findById(id).orElse(null);
+                if (problem == null || problem.getEmbeddedTestCases() == null) {
+                    continue;
+                }
+                List<TestCaseRef> refs = testDataStore.store(problem.getEmbeddedTestCases());
+                problem.setTestCaseRefs(refs);
+                problem.setEmbeddedTestCases(null);
+                problemRepository.save(problem);
+                problemCache.invalidate(id);
+                migrated++;
+            } catch (Exception e) {
+                log.warn("Could not migrate test data for problem {}: {}", id, e.getMessage());
+            }
+        }
+        log.info("Moved test data of {} of {} problems to GridFS", migrated, ids.size());
+    }
+}
@@ -0,0 +1,177 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.model.Problem;
+import com.compilerai.backend.model.TestCase;
+import com.compilerai.backend.model.TestCaseRef;
+import com.compilerai.backend.util.Hashing;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Stores test case inputs and expected outputs in GridFS, outside the problem
+ * document, and loads them back one test case at a time. Files a problem no longer
+ * points at are retired rather than deleted: judges in flight and other instances'
+ * cached problems may still read them, so {@link TestDataSweeper} deletes them
+ * only after a grace period.
+ */
+@Service
+public class TestDataStore {
+
+    @Autowired
+    private GridFsTemplate gridFsTemplate;
+
+    @Autowired
+    private ProblemCache problemCache;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    static final String RETIRED_AT = "metadata.retiredAt";
+    private static final String FILES_COLLECTION = "fs.files";
+
+    public List<TestCaseRef> store(List<TestCase> testCases) {
+        List<TestCaseRef> refs = new ArrayList<>();
+        if (testCases == null) {
+            return refs;
+        }
+        for (TestCase testCase : testCases) {
+            byte[] input = bytes(testCase.getInput());
+            byte[] output = bytes(testCase.getExpectedOutput());
+
+            ObjectId inputId = gridFsTemplate.store(new ByteArrayInputStream(input), "testcase.in", "text/plain");
+            ObjectId outputId = gridFsTemplate.store(new ByteArrayInputStream(output), "testcase.out", "text/plain");
+
+            refs.add(new TestCaseRef(
+                    inputId.toHexString(),
+                    outputId.toHexString(),
+                    (long) input.length,
+                    (long) output.length,
+                    testCaseHash(input, output)
+            ));
+        }
+        return refs;
+    }
+
+    public TestCase load(TestCaseRef ref) {
+        return problemCache.testCase(ref, () -> new TestCase(read(ref.getInputFileId()), read(ref.getOutputFileId())));
+    }
+
+    public List<TestCase> loadAll(Problem problem) {
+        TestSuite suite = suiteFor(problem);
+        List<TestCase> testCases = new ArrayList<>(suite.size());
+        for (int i = 0; i < suite.size(); i++) {
+            testCases.add(suite.get(i));
+        }
+        return testCases;
+    }
+
+    /**
+     * Deletes files nothing can have read yet (e.g. after a failed create).
+     */
+    public void delete(List<TestCaseRef> refs) {
+        if (refs == null || refs.isEmpty()) {
+            return;
+        }
+        gridFsTemplate.delete(new Query(Criteria.where("_id").in(fileIds(refs))));
+    }
+
+    /**
+     * Marks files a problem no longer points at for deletion after the grace period.
+     */
+    public void retire(List<TestCaseRef> refs) {
+        if (refs == null || refs.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(fileIds(refs))),
+                new Update().set(RETIRED_AT, new Date()), FILES_COLLECTION);
+    }
+
+    /**
+     * Deletes the files retired before the cutoff and returns how many there were.
+     */
+    long deleteRetiredBefore(Date cutoff) {
+        Query retired = new Query(Criteria.where(RETIRED_AT).lt(cutoff));
+        long count = mongoTemplate.count(retired, FILES_COLLECTION);
+        if (count > 0) {
+            gridFsTemplate.delete(retired);
+        }
+        return count;
+    }
+
+    private static List<ObjectId> fileIds(List<TestCaseRef> refs) {
+        List<ObjectId> ids = new ArrayList<>();
+        for (TestCaseRef ref : refs) {
+            ids.add(new ObjectId(ref.getInputFileId()));
+            ids.add(new ObjectId(ref.getOutputFileId()));
+        }
+        return ids;
+    }
+
+    /**
+     * The problem's test cases, read from GridFS references or, for problems that
+     * have not been migrated yet, from the embedded list.
+     */
+    public TestSuite suiteFor(Problem problem) {
+        if (problem.getTestCaseRefs() != null && !problem.getTestCaseRefs().isEmpty()) {
+            return new TestSuite(problem.getTestCaseRefs(), null, this);
+        }
+        List<TestCase> embedded = problem.getEmbeddedTestCases() != null ? problem.getEmbeddedTestCases() : List.of();
+        return new TestSuite(null, embedded, this);
+    }
+
+    private String read(String fileId) {
+        GridFSFile file = gridFsTemplate.findOne(new Query(Criteria.where("_id").is(new ObjectId(fileId))));
+        if (file == null) {
+            throw new TestDataMissingException(fileId);
+        }
+        GridFsResource resource = gridFsTemplate.getResource(file);
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read test data: " + e.getMessage());
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String testCaseHash(String input, String expectedOutput) {
+        return testCaseHash(bytes(input), bytes(expectedOutput));
+    }
+
+    private static String testCaseHash(byte[] input, byte[] output) {
+        MessageDigest digest = Hashing.sha256();
+        digest.update(input);
+        digest.update((byte) 0);
+        digest.update(output);
+        return Hashing.hex(digest);
+    }
+
+    /**
+     * A test data file is gone: the problem was read before its test data was
+     * replaced and the old files have since been deleted. Reload the problem.
+     */
+    public static class TestDataMissingException extends RuntimeException {
+        public TestDataMissingException(String fileId) {
+            super("Test data file " + fileId + " no longer exists");
+        }
+    }
+}
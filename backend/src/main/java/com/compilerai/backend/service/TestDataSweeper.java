@@ -0,0 +1,61 @@
+package com.compilerai.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes test data files retired by problem updates and deletions once they are
+ * older than problems.test-data.retire-grace-ms. The grace period must outlast
+ * problems.cache.ttl-ms plus the longest judging run, so no instance still holds
+ * a problem pointing at them.
+ */
+@Component
+public class TestDataSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(TestDataSweeper.class);
+
+    @Autowired
+    private TestDataStore testDataStore;
+
+    @Value("${problems.test-data.retire-grace-ms:1800000}")
+    private long graceMs;
+
+    @Value("${problems.test-data.sweep-interval-ms:600000}")
+    private long intervalMs;
+
+    private final ScheduledExecutorService sweeper =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("test-data-sweeper-"));
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        sweeper.scheduleWithFixedDelay(this::sweep, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+    }
+
+    private void sweep() {
+        try {
+            long deleted = testDataStore.deleteRetiredBefore(new Date(System.currentTimeMillis() - graceMs));
+            if (deleted > 0) {
+                log.info("Deleted {} retired test data files", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Test data sweep failed: {}", e.getMessage());
+        }
+    }
+}
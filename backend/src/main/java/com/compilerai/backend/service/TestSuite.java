@@ -0,0 +1,85 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.model.TestCase;
+import com.compilerai.backend.model.TestCaseRef;
+import com.compilerai.backend.util.Hashing;
+
+import java.util.List;
+
+/**
+ * A problem's test cases as seen by the judge. Sizes come from the references,
+ * so ordering and planning never touch test data; {@link #get(int)} loads a
+ * single test case on demand.
+ */
+public class TestSuite {
+
+    private final List<TestCaseRef> refs;
+    private final List<TestCase> embedded;
+    private final TestDataStore store;
+    private String hash;
+
+    TestSuite(List<TestCaseRef> refs, List<TestCase> embedded, TestDataStore store) {
+        this.refs = refs;
+        this.embedded = embedded;
+        this.store = store;
+    }
+
+    public int size() {
+        return refs != null ? refs.size() : embedded.size();
+    }
+
+    /**
+     * Input plus expected output size, used to run cheap tests first.
+     */
+    public long cost(int index) {
+        if (refs != null) {
+            TestCaseRef ref = refs.get(index);
+            return orZero(ref.getInputSize()) + orZero(ref.getOutputSize());
+        }
+        TestCase testCase = embedded.get(index);
+        return length(testCase.getInput()) + length(testCase.getExpectedOutput());
+    }
+
+    public TestCase get(int index) {
+        return refs != null ? store.load(refs.get(index)) : embedded.get(index);
+    }
+
+    /**
+     * Identifies this exact list of test cases: adding, removing, reordering or
+     * editing any test changes it. Stored results refer to tests by index plus
+     * this hash, so they are only resolved against the suite they ran on.
+     */
+    public synchronized String hash() {
+        if (hash == null) {
+            String[] testCaseHashes = new String[size()];
+            for (int i = 0; i < testCaseHashes.length; i++) {
+                testCaseHashes[i] = testCaseHash(i);
+            }
+            hash = Hashing.sha256Hex(testCaseHashes);
+        }
+        return hash;
+    }
+
+    /**
+     * Whether the test at index has exactly this input and expected output.
+     */
+    public boolean matches(int index, String input, String expectedOutput) {
+        return index < size() && testCaseHash(index).equals(TestDataStore.testCaseHash(input, expectedOutput));
+    }
+
+    private String testCaseHash(int index) {
+        if (refs != null) {
+            return refs.get(index).getSha256();
+        }
+        TestCase testCase = embedded.get(index);
+        return TestDataStore.testCaseHash(testCase.getInput(), testCase.getExpectedOutput());
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0;
+    }
+
+    private static long length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
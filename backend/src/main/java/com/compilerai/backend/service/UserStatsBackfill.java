@@ -0,0 +1,79 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.model.Problem;
+import com.compilerai.backend.model.Submission;
+import com.compilerai.backend.model.UserStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds every user's {@link UserStats} from the submissions collection. Runs at
+ * startup when migration.user-stats.enabled=true; it replaces the stats documents,
+ * so run it while no submissions are being judged.
+ */
+@Component
+public class UserStatsBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(UserStatsBackfill.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${migration.user-stats.enabled:false}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+
+        Query problemQuery = new Query();
+        problemQuery.fields().include("difficulty");
+        Map<String, String> difficulties = new HashMap<>();
+        for (Problem problem : mongoTemplate.find(problemQuery, Problem.class)) {
+            difficulties.put(problem.getId(), problem.getDifficulty());
+        }
+
+        // Submissions from before the judge queue have no status; they were judged synchronously
+        Query judged = new Query(new Criteria().orOperator(
+                Criteria.where("status").is(Submission.STATUS_COMPLETED),
+                Criteria.where("status").exists(false)
+        ));
+        judged.fields().include("userId", "problemId", "language", "isCorrect");
+
+        Map<String, UserStats> statsByUser = new HashMap<>();
+        try (Stream<Submission> submissions = mongoTemplate.stream(judged, Submission.class)) {
+            submissions.forEach(submission -> {
+                if (submission.getUserId() == null) {
+                    return;
+                }
+                UserStats stats = statsByUser.computeIfAbsent(submission.getUserId(), userId -> {
+                    UserStats created = new UserStats();
+                    created.setUserId(userId);
+                    return created;
+                });
+                UserStatsService.accumulate(stats, submission, difficulties.get(submission.getProblemId()));
+            });
+        }
+
+        for (UserStats stats : statsByUser.values()) {
+            stats.setUpdatedAt(LocalDateTime.now());
+            mongoTemplate.save(stats);
+        }
+        log.info("Rebuilt submission stats for {} users", statsByUser.size());
+    }
+}
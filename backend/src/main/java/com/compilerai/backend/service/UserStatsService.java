@@ -0,0 +1,97 @@
+package com.compilerai.backend.service;
+
+import com.compilerai.backend.model.Problem;
+import com.compilerai.backend.model.Submission;
+import com.compilerai.backend.model.UserStats;
+import com.compilerai.backend.repository.UserStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Keeps {@link UserStats} current with two atomic updates per judged submission:
+ * an upsert that bumps the counters, and, for an accepted submission, a guarded
+ * update that only matches if the problem was not solved before.
+ */
+@Service
+public class UserStatsService {
+
+    static final String UNKNOWN = "Unknown";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    public void recordSubmission(Submission submission, Problem problem) {
+        boolean accepted = Boolean.TRUE.equals(submission.getIsCorrect());
+
+        Update counters = new Update()
+                .inc("totalSubmissions", 1)
+                .inc("acceptedSubmissions", accepted ? 1 : 0)
+                .inc("submissionsByLanguage." + key(submission.getLanguage()), 1)
+                .inc("attemptsByProblem." + key(submission.getProblemId()), 1)
+                .set("updatedAt", LocalDateTime.now());
+        mongoTemplate.upsert(byUser(submission.getUserId()), counters, UserStats.class);
+
+        if (accepted) {
+            Query firstSolve = new Query(Criteria.where("_id").is(submission.getUserId())
+                    .and("solvedProblemIds").ne(submission.getProblemId()));
+            Update solved = new Update()
+                    .addToSet("solvedProblemIds", submission.getProblemId())
+                    .inc("solvedCount", 1)
+                    .inc("solvedByDifficulty." + key(problem != null ? problem.getDifficulty() : null), 1);
+            mongoTemplate.updateFirst(firstSolve, solved, UserStats.class);
+        }
+    }
+
+    public UserStats getStats(String userId) {
+        return userStatsRepository.findById(userId).orElseGet(() -> {
+            UserStats empty = new UserStats();
+            empty.setUserId(userId);
+            return empty;
+        });
+    }
+
+    /**
+     * Adds one submission to an in-memory stats document (used by the backfill).
+     */
+    static void accumulate(UserStats stats, Submission submission, String difficulty) {
+        boolean accepted = Boolean.TRUE.equals(submission.getIsCorrect());
+        stats.setTotalSubmissions(stats.getTotalSubmissions() + 1);
+        if (accepted) {
+            stats.setAcceptedSubmissions(stats.getAcceptedSubmissions() + 1);
+        }
+        increment(stats.getSubmissionsByLanguage(), key(submission.getLanguage()));
+        increment(stats.getAttemptsByProblem(), key(submission.getProblemId()));
+
+        if (accepted && !stats.getSolvedProblemIds().contains(submission.getProblemId())) {
+            stats.getSolvedProblemIds().add(submission.getProblemId());
+            stats.setSolvedCount(stats.getSolvedCount() + 1);
+            increment(stats.getSolvedByDifficulty(), key(difficulty));
+        }
+    }
+
+    private static void increment(Map<String, Long> counts, String key) {
+        counts.merge(key, 1L, Long::sum);
+    }
+
+    private static Query byUser(String userId) {
+        return new Query(Criteria.where("_id").is(userId));
+    }
+
+    // Map keys become field names, which must not contain dots or start with $
+    static String key(String value) {
+        if (value == null || value.isBlank()) {
+            return UNKNOWN;
+        }
+        return value.replace('.', '_').replace('$', '_');
+    }
+}
@@ -0,0 +1,118 @@
+package com.compilerai.backend.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * In-memory LRU cache held to a weight budget (usually estimated bytes), with
+ * an optional TTL. Callers supply each value's weight. Values dropped for age or
+ * size are handed to the eviction listener; values the pinned predicate accepts
+ * are skipped by eviction until {@link #trim} runs after they are unpinned.
+ * All methods are synchronized on the cache.
+ */
+public class BoundedCache<K, V> {
+
+    private final long maxWeight;
+    private final long ttlMs;
+    private final Predicate<V> pinned;
+    private final Consumer<V> onEviction;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final Map<K, Entry<V>> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long weight;
+
+    /**
+     * @param ttlMs how long a value stays fresh, or 0 for no expiry
+     */
+    public BoundedCache(long maxWeight, long ttlMs, Predicate<V> pinned, Consumer<V> onEviction) {
+        this.maxWeight = maxWeight;
+        this.ttlMs = ttlMs;
+        this.pinned = pinned;
+        this.onEviction = onEviction;
+    }
+
+    public BoundedCache(long maxWeight, long ttlMs, Consumer<V> onEviction) {
+        this(maxWeight, ttlMs, value -> false, onEviction);
+    }
+
+    /**
+     * The cached value, or null if there is none or it has expired.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            weight -= entry.weight();
+            onEviction.accept(entry.value());
+            return null;
+        }
+        return entry.value();
+    }
+
+    /**
+     * Stores the value and evicts least recently used values until the cache fits
+     * its budget again. Returns the value it replaced, if any. A value heavier than
+     * the whole budget is not stored and goes straight to the eviction listener.
+     */
+    public synchronized V put(K key, V value, long valueWeight) {
+        if (valueWeight > maxWeight) {
+            onEviction.accept(value);
+            return null;
+        }
+        long expiresAt = ttlMs > 0 ? System.currentTimeMillis() + ttlMs : Long.MAX_VALUE;
+        Entry<V> entry = new Entry<>(value, valueWeight, expiresAt);
+        Entry<V> previous = entries.put(key, entry);
+        if (previous != null) {
+            weight -= previous.weight();
+        }
+        weight += valueWeight;
+        trim(entry);
+        return previous != null ? previous.value() : null;
+    }
+
+    public synchronized V remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed == null) {
+            return null;
+        }
+        weight -= removed.weight();
+        return removed.value();
+    }
+
+    /**
+     * Evicts until the cache fits its budget; call after unpinning a value.
+     */
+    public synchronized void trim() {
+        trim(null);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    private void trim(Entry<V> keep) {
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            Entry<V> candidate = eldest.next();
+            if (candidate == keep || pinned.test(candidate.value())) {
+                continue;
+            }
+            eldest.remove();
+            weight -= candidate.weight();
+            onEviction.accept(candidate.value());
+        }
+    }
+
+    private record Entry<V>(V value, long weight, long expiresAt) {
+    }
+}
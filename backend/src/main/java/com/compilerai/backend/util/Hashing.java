@@ -0,0 +1,45 @@
+package com.compilerai.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 helpers for cache keys and content hashes. Some of these hashes are
+ * stored (test case and suite hashes, hint source hashes), so the byte layout a
+ * caller feeds in must not change.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * Hex SHA-256 of the fields, each UTF-8 encoded and followed by a zero byte;
+     * a null field hashes like an empty one.
+     */
+    public static String sha256Hex(String... fields) {
+        MessageDigest digest = sha256();
+        for (String field : fields) {
+            digest.update((field != null ? field : "").getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return hex(digest);
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Completes the digest and returns it as lowercase hex.
+     */
+    public static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,146 @@
+// compiler/artifactCache.js
+// Content-addressed cache of compiled executables (and compile errors) on local disk.
+// Entries are keyed by sha256(language, compiler flags, normalized source) and
+// evicted least-recently-used once the cache grows past its byte budget.
+const fs = require('fs');
+const path = require('path');
+const crypto = require('crypto');
+
+const cacheDir = process.env.ARTIFACT_CACHE_DIR || path.join(__dirname, 'temp', 'cache');
+const maxBytes = parseInt(process.env.ARTIFACT_CACHE_MAX_BYTES || `${512 * 1024 * 1024}`, 10);
+const maxErrorEntries = parseInt(process.env.ARTIFACT_CACHE_MAX_ERRORS || '1000', 10);
+
+if (!fs.existsSync(cacheDir)) fs.mkdirSync(cacheDir, { recursive: true });
+
+// key -> { executable, size, compileMs, inUse }; Map order doubles as LRU order
+const artifacts = new Map();
+// key -> { error, compileMs }
+const compileErrors = new Map();
+// key -> Promise, so concurrent identical compiles share one g++ run
+const inFlight = new Map();
+let totalBytes = 0;
+
+const stats = {
+  hits: 0,
+  misses: 0,
+  errorHits: 0,
+  evictions: 0,
+  bytesSaved: 0,
+  compileMsSaved: 0,
+};
+
+// Line endings and trailing whitespace never change what g++ produces
+const normalize = (code) => code.replace(/^\uFEFF/, '').replace(/\r\n?/g, '\n').trimEnd();
+
+const keyFor = (language, flags, code) =>
+  crypto.createHash('sha256')
+    .update(`${language}\0${flags}\0${normalize(code)}`)
+    .digest('hex');
+
+// Pick up executables left by a previous run, oldest first
+for (const file of fs.readdirSync(cacheDir)
+  .filter((f) => f.endsWith('.out'))
+  .map((f) => ({ f, stat: fs.statSync(path.join(cacheDir, f)) }))
+  .sort((a, b) => a.stat.mtimeMs - b.stat.mtimeMs)) {
+  const key = file.f.replace('.out', '');
+  artifacts.set(key, { executable: path.join(cacheDir, file.f), size: file.stat.size, compileMs: 0, inUse: 0 });
+  totalBytes += file.stat.size;
+}
+
+const touch = (map, key, entry) => {
+  map.delete(key);
+  map.set(key, entry);
+};
+
+const evict = () => {
+  for (const [key, entry] of artifacts) {
+    if (totalBytes <= maxBytes) break;
+    if (entry.inUse > 0) continue;
+    artifacts.delete(key);
+    totalBytes -= entry.size;
+    stats.evictions++;
+    if (fs.existsSync(entry.executable)) fs.unlinkSync(entry.executable);
+  }
+  while (compileErrors.size > maxErrorEntries) {
+    compileErrors.delete(compileErrors.keys().next().value);
+  }
+};
+
+const lease = (entry) => {
+  entry.inUse++;
+  let released = false;
+  return {
+    executable: entry.executable,
+    release: () => {
+      if (released) return;
+      released = true;
+      entry.inUse--;
+      evict();
+    },
+  };
+};
+
+// Resolve to { executable, release } for a compiled artifact, or reject with the
+// (possibly cached) compilation error. `compile(outputPath)` must produce the
+// executable at outputPath and resolve with nothing, or reject with an Error.
+const getOrCompile = async (language, flags, code, compile) => {
+  const key = keyFor(language, flags, code);
+
+  const cached = artifacts.get(key);
+  if (cached && fs.existsSync(cached.executable)) {
+    stats.hits++;
+    stats.bytesSaved += cached.size;
+    stats.compileMsSaved += cached.compileMs;
+    touch(artifacts, key, cached);
+    return lease(cached);
+  }
+
+  const failed = compileErrors.get(key);
+  if (failed) {
+    stats.errorHits++;
+    stats.compileMsSaved += failed.compileMs;
+    touch(compileErrors, key, failed);
+    throw new Error(failed.error);
+  }
+
+  if (!inFlight.has(key)) {
+    stats.misses++;
+    const executable = path.join(cacheDir, `${key}.out`);
+    const started = Date.now();
+    const pending = compile(executable)
+      .then(() => {
+        const size = fs.statSync(executable).size;
+        const entry = { executable, size, compileMs: Date.now() - started, inUse: 0 };
+        if (artifacts.has(key)) totalBytes -= artifacts.get(key).size;
+        artifacts.set(key, entry);
+        totalBytes += size;
+        return entry;
+      })
+      .catch((err) => {
+        compileErrors.set(key, { error: err.message, compileMs: Date.now() - started });
+        throw err;
+      })
+      .finally(() => inFlight.delete(key));
+    inFlight.set(key, pending);
+  }
+
+  const entry = await inFlight.get(key);
+  const handle = lease(entry);
+  evict();
+  return handle;
+};
+
+const metrics = () => {
+  const lookups = stats.hits + stats.errorHits + stats.misses;
+  return {
+    ...stats,
+    lookups,
+    hitRate: lookups === 0 ? 0 : (stats.hits + stats.errorHits) / lookups,
+    entries: artifacts.size,
+    cachedErrors: compileErrors.size,
+    bytes: totalBytes,
+    maxBytes,
+  };
+};
+
+module.exports = { getOrCompile, metrics };
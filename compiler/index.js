@@ -3,10 +3,22 @@ const express = require('express');
 const cors = require('cors');
 const bodyParser = require('body-parser');
 const runCode = require('./runCode');
+const { runBatch } = require('./runCode');
+const { metrics } = require('./artifactCache');
+const { v4: uuid } = require('uuid');
 
 const app = express();
 app.use(cors());
-app.use(bodyParser.json());
+// /run/batch carries every input of a batch in one body, so the 100kb default is far too small
+const MAX_BODY_BYTES = parseInt(process.env.MAX_BODY_BYTES || `${64 * 1024 * 1024}`, 10);
+app.use(bodyParser.json({ limit: MAX_BODY_BYTES }));
+
+// Correlate with the backend: reuse its X-Request-Id (or mint one) and echo it back
+app.use((req, res, next) => {
+  req.requestId = req.get('x-request-id') || uuid();
+  res.set('x-request-id', req.requestId);
+  next();
+});
 
 // Health check endpoint
 app.get('/', (req, res) => {
@@ -14,7 +26,9 @@ app.get('/', (req, res) => {
     message: 'Compiler service is running 🚀',
     status: 'healthy',
     endpoints: {
-      run: 'POST /run - Execute code'
+      run: 'POST /run - Execute code',
+      runBatch: 'POST /run/batch - Compile once, execute against many inputs',
+      metrics: 'GET /metrics - Compiled artifact cache statistics'
     }
   });
 });
@@ -25,10 +39,26 @@ app.post('/run', async (req, res) => {
     const output = await runCode(language, code, input);
     res.json({ output });
   } catch (err) {
+    console.error(`[${req.requestId}] run failed: ${err.message.split('\n')[0]}`);
     res.status(500).json({ error: err.message });
   }
 });
 
+app.post('/run/batch', async (req, res) => {
+  const { language, code, inputs } = req.body;
+  try {
+    const { results, compileMs, runMs } = await runBatch(language, code, inputs || []);
+    res.json({ results, compileMs, runMs });
+  } catch (err) {
+    console.error(`[${req.requestId}] batch failed: ${err.message.split('\n')[0]}`);
+    res.json({ results: [], error: err.message });
+  }
+});
+
+app.get('/metrics', (req, res) => {
+  res.json({ artifactCache: metrics() });
+});
+
 const PORT = process.env.PORT || 8000;
 app.listen(PORT, () => {
   console.log(`Compiler running on port ${PORT} 🚀`);
@@ -7,40 +7,82 @@ const { v4: uuid } = require('uuid');
 const tempDir = path.join(__dirname, 'temp');
 if (!fs.existsSync(tempDir)) fs.mkdirSync(tempDir);
 
-const runCode = (language, code, input = '') => {
-  return new Promise((resolve, reject) => {
-    const filename = `${uuid()}.cpp`; // only cpp for now
-    const filepath = path.join(tempDir, filename);
-    const inputFilePath = filepath.replace('.cpp', '.input');
+const { getOrCompile } = require('./artifactCache');
 
-    fs.writeFileSync(filepath, code);
-    fs.writeFileSync(inputFilePath, input);
+const COMPILER_FLAGS = process.env.CXXFLAGS || '';
+const MAX_OUTPUT_BYTES = parseInt(process.env.MAX_OUTPUT_BYTES || `${8 * 1024 * 1024}`, 10);
 
-    const executable = filepath.replace('.cpp', '.out');
+// Compile the source once (or reuse a cached build) and hand back { executable, release }
+const compileCode = (language, code) => {
+  return getOrCompile(language, COMPILER_FLAGS, code, (executable) => {
+    return new Promise((resolve, reject) => {
+      const filename = `${uuid()}.cpp`; // only cpp for now
+      const filepath = path.join(tempDir, filename);
 
-    const compile = `g++ ${filepath} -o ${executable}`;
-    const run = `${executable} < ${inputFilePath}`;
+      fs.writeFileSync(filepath, code);
 
-    exec(compile, (err, _, stderr) => {
-      if (err) {
-        // Clean up
-        fs.unlinkSync(filepath);
-        if (fs.existsSync(inputFilePath)) fs.unlinkSync(inputFilePath);
-        return reject(new Error(`Compilation error:\n${stderr}`));
-      }
+      const compile = `g++ ${COMPILER_FLAGS} ${filepath} -o ${executable}`;
 
-      exec(run, (err, stdout, stderr) => {
-        // Clean up files
+      exec(compile, (err, _, stderr) => {
         fs.unlinkSync(filepath);
-        fs.unlinkSync(inputFilePath);
-        if (fs.existsSync(executable)) fs.unlinkSync(executable);
+        if (err) return reject(new Error(`Compilation error:\n${stderr}`));
+        resolve();
+      });
+    });
+  });
+};
+
+// Run an already compiled executable against a single input
+const executeCode = (executable, input = '') => {
+  return new Promise((resolve, reject) => {
+    const inputFilePath = executable.replace('.out', `-${uuid()}.input`);
+    fs.writeFileSync(inputFilePath, input);
 
-        if (err) return reject(new Error(`Runtime error:\n${stderr}`));
+    const run = `${executable} < ${inputFilePath}`;
 
-        resolve(stdout.trim());
-      });
+    exec(run, { maxBuffer: MAX_OUTPUT_BYTES }, (err, stdout, stderr) => {
+      fs.unlinkSync(inputFilePath);
+
+      if (err && err.code === 'ERR_CHILD_PROCESS_STDIO_MAXBUFFER') {
+        return reject(new Error('Output limit exceeded'));
+      }
+      if (err) return reject(new Error(`Runtime error:\n${stderr}`));
+
+      resolve(stdout.trim());
     });
   });
 };
 
+const runCode = async (language, code, input = '') => {
+  const { executable, release } = await compileCode(language, code);
+  try {
+    return await executeCode(executable, input);
+  } finally {
+    release();
+  }
+};
+
+// Compile once, then run every input in order. A compilation error rejects
+// the whole batch; runtime errors are reported per input. Resolves to
+// { results, compileMs, runMs } so callers can tell compile from run time.
+const runBatch = async (language, code, inputs = []) => {
+  const compileStart = Date.now();
+  const { executable, release } = await compileCode(language, code);
+  const runStart = Date.now();
+  const results = [];
+  try {
+    for (const input of inputs) {
+      try {
+        results.push({ output: await executeCode(executable, input) });
+      } catch (err) {
+        results.push({ error: err.message });
+      }
+    }
+  } finally {
+    release();
+  }
+  return { results, compileMs: runStart - compileStart, runMs: Date.now() - runStart };
+};
+
 module.exports = runCode;
+module.exports.runBatch = runBatch;
@@ -14,6 +14,9 @@ export default function EditProblem() {
     outputFormat: '',
     difficulty: '',
     tags: '',
+    checker: 'EXACT',
+    floatTolerance: '',
+    parallelism: '',
     testCases: [{ input: '', expectedOutput: '' }]
   });
 
@@ -22,7 +25,7 @@ export default function EditProblem() {
   useEffect(() => {
     const fetchProblem = async () => {
       const token = localStorage.getItem('token');
-      const res = await axios.get(`${API}/problems/${id}`, {
+      const res = await axios.get(`${API}/problems/${id}?includeTestCases=true`, {
         headers: { Authorization: `Bearer ${token}` }
       });
 
@@ -34,6 +37,9 @@ export default function EditProblem() {
         outputFormat: problem.outputFormat,
         difficulty: problem.difficulty,
         tags: problem.tags.join(', '),
+        checker: problem.checker || 'EXACT',
+        floatTolerance: problem.floatTolerance ?? '',
+        parallelism: problem.parallelism ?? '',
         testCases: problem.testCases || [{ input: '', expectedOutput: '' }]
       });
     };
@@ -72,7 +78,12 @@ export default function EditProblem() {
 
     try {
       const tagsArray = formData.tags.split(',').map(tag => tag.trim());
-      const payload = { ...formData, tags: tagsArray };
+      const payload = {
+        ...formData,
+        tags: tagsArray,
+        floatTolerance: formData.floatTolerance === '' ? null : Number(formData.floatTolerance),
+        parallelism: formData.parallelism === '' ? null : Number(formData.parallelism)
+      };
 
       await axios.put(`${API}/problems/${id}`, payload, {
         headers: { Authorization: `Bearer ${token}` }
@@ -104,6 +115,18 @@ export default function EditProblem() {
 
         <input type="text" name="tags" value={formData.tags} onChange={handleChange} placeholder="Comma separated tags" className="w-full border px-3 py-2 rounded" />
 
+        <select name="checker" value={formData.checker} onChange={handleChange} className="w-full border px-3 py-2 rounded">
+          <option value="EXACT">Exact output</option>
+          <option value="WHITESPACE">Ignore whitespace</option>
+          <option value="FLOAT">Numbers within a tolerance</option>
+        </select>
+
+        {formData.checker === 'FLOAT' && (
+          <input type="number" name="floatTolerance" step="any" min="0" value={formData.floatTolerance} onChange={handleChange} placeholder="Float tolerance (default 1e-6)" className="w-full border px-3 py-2 rounded" />
+        )}
+
+        <input type="number" name="parallelism" min="1" step="1" value={formData.parallelism} onChange={handleChange} placeholder="Parallel test chunks (blank for the default)" className="w-full border px-3 py-2 rounded" />
+
         {/* Test Cases Section */}
         <div>
           <h3 className="font-bold mb-2">Test Cases</h3>
@@ -12,12 +12,20 @@ export default function ProblemList() {
   const fetchProblems = async () => {
     try {
       const token = localStorage.getItem('token');
-      const res = await axios.get(`${API}/problems`, {
-        headers: {
-          Authorization: `Bearer ${token}`
-        }
-      });
-      setProblems(res.data);
+      // The listing is paged; admins manage the whole catalog, so follow every cursor
+      let all = [];
+      let cursor = null;
+      do {
+        const res = await axios.get(`${API}/problems`, {
+          headers: {
+            Authorization: `Bearer ${token}`
+          },
+          params: cursor ? { cursor } : {}
+        });
+        all = all.concat(res.data);
+        cursor = res.headers['x-next-cursor'] || null;
+      } while (cursor);
+      setProblems(all);
     } catch (err) {
       console.error('Failed to fetch problems:', err);
     }
@@ -33,7 +41,7 @@ export default function ProblemList() {
           Authorization: `Bearer ${token}`
         }
       });
-      setProblems(problems.filter(p => p._id !== id));
+      setProblems(problems.filter(p => p.id !== id));
     } catch (err) {
       console.error('Delete failed:', err);
     }
@@ -59,18 +67,18 @@ export default function ProblemList() {
         </thead>
         <tbody>
           {problems.map((problem) => (
-            <tr key={problem._id} className="border-t">
+            <tr key={problem.id} className="border-t">
               <td className="px-4 py-2">{problem.title}</td>
               <td className="px-4 py-2">{problem.difficulty}</td>
               <td className="px-4 py-2">
                 <Link
-                  to={`/admin/problems/edit/${problem._id}`}
+                  to={`/admin/problems/edit/${problem.id}`}
                   className="text-blue-500 hover:underline mr-4"
                 >
                   ✏️ Edit
                 </Link>
                 <button
-                  onClick={() => handleDelete(problem._id)}
+                  onClick={() => handleDelete(problem.id)}
                   className="text-red-500 hover:underline"
                 >
                   🗑️ Delete
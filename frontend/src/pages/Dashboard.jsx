@@ -9,6 +9,19 @@ const API = `${API_URL}/api`;
 export default function Dashboard() {
   const [user, setUser] = useState(null);
   const [problems, setProblems] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+
+  const fetchProblems = async (cursor) => {
+    try {
+      const res = await axios.get(`${API}/problems`, {
+        params: cursor ? { cursor } : {}
+      });
+      setProblems((prev) => (cursor ? [...prev, ...res.data] : res.data));
+      setNextCursor(res.headers['x-next-cursor'] || null);
+    } catch (err) {
+      console.error("Error fetching problems:", err);
+    }
+  };
 
   useEffect(() => {
     const fetchProfile = async () => {
@@ -23,15 +36,6 @@ export default function Dashboard() {
       }
     };
   
-    const fetchProblems = async () => {
-      try {
-        const res = await axios.get(`${API}/problems`);
-        setProblems(res.data);
-      } catch (err) {
-        console.error("Error fetching problems:", err);
-      }
-    };
-  
     fetchProfile();
     fetchProblems();
   }, []);
@@ -72,6 +76,7 @@ export default function Dashboard() {
             <th className="py-2 px-4 text-left">Title</th>
             <th className="py-2 px-4 text-left">Difficulty</th>
             <th className="py-2 px-4 text-left">Tags</th>
+            <th className="py-2 px-4 text-left">Acceptance</th>
           </tr>
         </thead>
         <tbody>
@@ -87,10 +92,21 @@ export default function Dashboard() {
               </td>
               <td className="py-2 px-4">{problem.difficulty}</td>
               <td className="py-2 px-4">{problem.tags.join(", ")}</td>
+              <td className="py-2 px-4">
+                {problem.attempts ? `${Math.round((100 * problem.accepts) / problem.attempts)}%` : "-"}
+              </td>
             </tr>
           ))}
         </tbody>
       </table>
+      {nextCursor && (
+        <button
+          onClick={() => fetchProblems(nextCursor)}
+          className="mt-4 bg-indigo-600 hover:bg-indigo-700 transition px-4 py-2 rounded text-white"
+        >
+          Load more
+        </button>
+      )}
     </div>
   );
 }
@@ -7,24 +7,28 @@ const API = `${API_URL}/api`;
 export default function MySubmissions() {
   const [submissions, setSubmissions] = useState([]);
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState(null);
+
+  const fetchData = async (cursor) => {
+    try {
+      const token = localStorage.getItem("token");
+      const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : "";
+      const res = await fetch(`${API}/submit/user${query}`, {
+        headers: {
+          Authorization: `Bearer ${token}`,
+        },
+      });
+      const data = await res.json();
+      setSubmissions((prev) => (cursor ? [...prev, ...data] : data));
+      setNextCursor(res.headers.get("X-Next-Cursor"));
+    } catch (err) {
+      console.error("Error fetching submissions", err);
+    } finally {
+      setLoading(false);
+    }
+  };
 
   useEffect(() => {
-    const fetchData = async () => {
-      try {
-        const token = localStorage.getItem("token");
-        const res = await fetch(`${API}/submit/my-submissions`, {
-          headers: {
-            Authorization: `Bearer ${token}`,
-          },
-        });
-        const data = await res.json();
-        setSubmissions(data);
-      } catch (err) {
-        console.error("Error fetching submissions", err);
-      } finally {
-        setLoading(false);
-      }
-    };
     fetchData();
   }, []);
 
@@ -46,8 +50,8 @@ export default function MySubmissions() {
           </thead>
           <tbody>
             {submissions.map((sub) => (
-              <tr key={sub._id}>
-                <td className="px-4 py-2 border">{sub.problemId?.title || "Deleted Problem"}</td>
+              <tr key={sub.id}>
+                <td className="px-4 py-2 border">{sub.problemTitle || "Deleted Problem"}</td>
                 <td className="px-4 py-2 border">{sub.verdict}</td>
                 <td className="px-4 py-2 border">
                   {new Date(sub.createdAt).toLocaleString()}
@@ -57,6 +61,14 @@ export default function MySubmissions() {
           </tbody>
         </table>
       )}
+      {nextCursor && (
+        <button
+          onClick={() => fetchData(nextCursor)}
+          className="mt-4 bg-indigo-600 hover:bg-indigo-700 transition px-4 py-2 rounded text-white"
+        >
+          Load more
+        </button>
+      )}
     </div>
   );
 }
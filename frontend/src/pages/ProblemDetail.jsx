@@ -2,7 +2,6 @@ import { useState, useEffect } from "react";
 import { useParams } from "react-router-dom";
 import CodeMirror from "@uiw/react-codemirror";
 import { cpp } from "@codemirror/lang-cpp";
-import axios from "axios";
 import ReactMarkdown from "react-markdown";
 import { Link } from "react-router-dom";
 import { API_URL } from "../api";
@@ -89,6 +88,30 @@ export default function ProblemPage() {
       .trim();
   }
 
+// Read a Server-Sent Events response, calling onEvent(name, data) per event
+const readEvents = async (res, onEvent) => {
+  const reader = res.body.getReader();
+  const decoder = new TextDecoder();
+  let buffer = "";
+  for (;;) {
+    const { value, done } = await reader.read();
+    if (done) break;
+    buffer += decoder.decode(value, { stream: true }).replace(/\r\n/g, "\n");
+    let end;
+    while ((end = buffer.indexOf("\n\n")) >= 0) {
+      const block = buffer.slice(0, end);
+      buffer = buffer.slice(end + 2);
+      let name = "message";
+      const data = [];
+      for (const line of block.split("\n")) {
+        if (line.startsWith("event:")) name = line.slice(6).trim();
+        else if (line.startsWith("data:")) data.push(line.slice(5).replace(/^ /, ""));
+      }
+      if (data.length) onEvent(name, JSON.parse(data.join("\n")));
+    }
+  }
+};
+
 const handleAIReview = async () => {
   if (!code.trim()) {
     setAiFeedback({ review: null, hints: "⚠️ Please enter code first." });
@@ -97,26 +120,52 @@ const handleAIReview = async () => {
 
   setAiLoading(true);
   try {
-    const res = await axios.post(
-      `${API}/ai-review`,
-      {
+    // Streamed: review and hints fill in as the model writes them
+    const res = await fetch(`${API}/ai-review/stream`, {
+      method: "POST",
+      headers: {
+        "Content-Type": "application/json",
+        Accept: "text/event-stream",
+        Authorization: `Bearer ${localStorage.getItem("token")}`,
+      },
+      body: JSON.stringify({
         code,
+        problemId: id,
         problemTitle: problem.title,
         problemDescription: problem.description,
-      },
-      {
-        headers: { Authorization: `Bearer ${localStorage.getItem("token")}` },
-      }
-    );
-
-    setAiFeedback({
-      review: cleanMarkdown(res.data.review),
-      hints: cleanMarkdown(res.data.hints),
+      }),
     });
+    if (!res.ok) {
+      const error = new Error(`HTTP ${res.status}`);
+      if (res.status === 429) error.retryAfter = Number(res.headers.get("Retry-After")) || 0;
+      throw error;
+    }
 
+    let review = "";
+    let hints = "";
+    await readEvents(res, (name, data) => {
+      if (name === "review") review += data.text;
+      else if (name === "hints") hints += data.text;
+      else if (name === "done") {
+        review = data.review || "";
+        hints = data.hints || "";
+      }
+      else if (name === "error") {
+        // The stream has already answered 200, so a busy reviewer shows up as retryAfter here
+        const error = new Error(data.error || data.message);
+        if (data.retryAfter != null) error.retryAfter = data.retryAfter;
+        throw error;
+      }
+      setAiFeedback({ review: cleanMarkdown(review), hints: cleanMarkdown(hints) });
+    });
   } catch (err) {
     console.error("AI review error:", err);
-    setAiFeedback({ review: null, hints: "❌ Failed to get AI review" });
+    const busy = err.retryAfter != null;
+    const wait = err.retryAfter > 0 ? `in ${err.retryAfter}s` : "in a moment";
+    setAiFeedback({
+      review: null,
+      hints: busy ? `⏳ The AI reviewer is busy, please try again ${wait}.` : "❌ Failed to get AI review",
+    });
   }
   setAiLoading(false);
 };
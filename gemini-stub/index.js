@@ -0,0 +1,114 @@
+// gemini-stub/index.js
+// Offline stand-in for the Gemini generateContent and streamGenerateContent
+// (?alt=sse) APIs, for load testing the backend's AI review path. Point the backend at it with
+// GEMINI_API_URL=http://localhost:8090 (any API key is accepted).
+//
+//   STUB_PORT          port to listen on (default 8090)
+//   STUB_LATENCY_MS    mean response latency (default 1500)
+//   STUB_JITTER_MS     +/- uniform jitter around the mean (default 500)
+//   STUB_ERROR_RATE    fraction of requests answered 429 or 503 (default 0)
+//   STUB_FIRST_CHUNK_MS  streaming: delay before the first chunk (default 300)
+//   STUB_CHUNK_MS        streaming: delay between chunks (default 80)
+//   STUB_CHUNK_CHARS     streaming: characters per chunk (default 16)
+const http = require('http');
+
+const port = parseInt(process.env.STUB_PORT || '8090', 10);
+const latencyMs = parseInt(process.env.STUB_LATENCY_MS || '1500', 10);
+const jitterMs = parseInt(process.env.STUB_JITTER_MS || '500', 10);
+const errorRate = parseFloat(process.env.STUB_ERROR_RATE || '0');
+const firstChunkMs = parseInt(process.env.STUB_FIRST_CHUNK_MS || '300', 10);
+const chunkMs = parseInt(process.env.STUB_CHUNK_MS || '80', 10);
+const chunkChars = parseInt(process.env.STUB_CHUNK_CHARS || '16', 10);
+
+const stats = { requests: 0, errors: 0, inFlight: 0, maxInFlight: 0 };
+
+const delay = () => Math.max(0, latencyMs + Math.round((Math.random() * 2 - 1) * jitterMs));
+
+const answerFor = (prompt) => {
+  if (prompt.includes('has NOT entered any code')) {
+    return '- Think about what the input size allows.\n- Look for a property you can maintain incrementally.\n- Check the edge cases first.';
+  }
+  return 'Review: The code is readable and mostly correct. Some edge cases are not handled.\n' +
+    'Hints:\n- Check the bounds of your loops.\n- Consider the empty input.\n- Avoid recomputing values inside the loop.';
+};
+
+const sendJson = (res, status, body) => {
+  res.writeHead(status, { 'Content-Type': 'application/json' });
+  res.end(JSON.stringify(body));
+};
+
+const candidate = (text, finishReason) => ({
+  candidates: [{ content: { role: 'model', parts: [{ text }] }, ...(finishReason ? { finishReason } : {}) }],
+});
+
+const streamAnswer = (res, text) => {
+  res.writeHead(200, { 'Content-Type': 'text/event-stream', 'Cache-Control': 'no-cache' });
+  const chunks = [];
+  for (let i = 0; i < text.length; i += chunkChars) chunks.push(text.slice(i, i + chunkChars));
+
+  let index = 0;
+  const next = () => {
+    if (res.destroyed) {
+      stats.inFlight--;
+      return;
+    }
+    const last = index === chunks.length - 1;
+    res.write(`data: ${JSON.stringify(candidate(chunks[index], last ? 'STOP' : null))}\r\n\r\n`);
+    index++;
+    if (last) {
+      stats.inFlight--;
+      return res.end();
+    }
+    setTimeout(next, chunkMs);
+  };
+  setTimeout(next, firstChunkMs);
+};
+
+const server = http.createServer((req, res) => {
+  if (req.method === 'GET' && req.url === '/stats') {
+    return sendJson(res, 200, stats);
+  }
+
+  const match = req.method === 'POST' && req.url.match(/^\/v1beta\/models\/[^/:]+:(generateContent|streamGenerateContent)/);
+  if (!match) {
+    return sendJson(res, 404, { error: { code: 404, message: 'Not found' } });
+  }
+
+  let body = '';
+  req.on('data', (chunk) => { body += chunk; });
+  req.on('end', () => {
+    stats.requests++;
+    stats.inFlight++;
+    stats.maxInFlight = Math.max(stats.maxInFlight, stats.inFlight);
+
+    let prompt = '';
+    try {
+      prompt = JSON.parse(body).contents[0].parts[0].text || '';
+    } catch (err) {
+      stats.inFlight--;
+      return sendJson(res, 400, { error: { code: 400, message: 'Invalid request body' } });
+    }
+
+    if (Math.random() < errorRate) {
+      stats.errors++;
+      const status = Math.random() < 0.5 ? 429 : 503;
+      return setTimeout(() => {
+        stats.inFlight--;
+        sendJson(res, status, { error: { code: status, message: 'Stubbed failure' } });
+      }, delay());
+    }
+
+    if (match[1] === 'streamGenerateContent') {
+      return streamAnswer(res, answerFor(prompt));
+    }
+    setTimeout(() => {
+      stats.inFlight--;
+      sendJson(res, 200, candidate(answerFor(prompt), 'STOP'));
+    }, delay());
+  });
+});
+
+server.listen(port, () => {
+  console.log(`Gemini stub listening on port ${port} (latency ${latencyMs}±${jitterMs} ms, ` +
+    `first chunk ${firstChunkMs} ms, error rate ${errorRate})`);
+});